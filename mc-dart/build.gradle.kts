@@ -24,7 +24,10 @@
  * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import io.spine.internal.dependency.Jmh
+import io.spine.internal.dependency.OsDetector
 import io.spine.internal.dependency.Spine
+import org.gradle.plugin.devel.tasks.PluginUnderTestMetadata
 import org.jetbrains.dokka.gradle.DokkaTask
 
 plugins {
@@ -38,11 +41,96 @@ dependencies {
     api(gradleApi())
     api(gradleKotlinDsl())
     api(spine.modelCompiler)
+    implementation(OsDetector.lib)
 
     testImplementation(gradleTestKit())
     testImplementation(spine.testlib)
 }
 
+// Allows running the plugin in builds launched by the Gradle TestKit
+// via `GradleRunner.withPluginClasspath()`.
+val pluginUnderTestMetadata by tasks.registering(PluginUnderTestMetadata::class) {
+    pluginClasspath.from(sourceSets.main.get().runtimeClasspath)
+    outputDirectory.set(layout.buildDirectory.dir(name))
+}
+
+dependencies {
+    testRuntimeOnly(files(pluginUnderTestMetadata))
+}
+
+// The JMH benchmarks of the hot paths of the plugin.
+//
+// The benchmarks live in the package of the plugin to access its package-private classes.
+// Run them with `./gradlew jmh`. Pass JMH options via `-Pjmh.args`, e.g.
+// `./gradlew jmh -Pjmh.args="ModuleIndex -f 1 -wi 2 -i 3"`.
+val jmh: SourceSet by sourceSets.creating {
+    val main = sourceSets.main.get()
+    compileClasspath += main.output + main.compileClasspath
+    runtimeClasspath += main.output + main.runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"(Jmh.core)
+    "jmhAnnotationProcessor"(Jmh.annotationProcessor)
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks of the plugin."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    val jmhArgs = providers.gradleProperty("jmh.args").orElse("")
+    argumentProviders.add(CommandLineArgumentProvider {
+        val file = results.get().asFile
+        file.parentFile.mkdirs()
+        jmhArgs.get().split(' ').filter { it.isNotBlank() } +
+                listOf("-rf", "json", "-rff", file.path)
+    })
+}
+
+// The end-to-end benchmark of the code generation at scale.
+//
+// Builds synthetic projects of 100, 1000, and 10000 `.proto` files with the Gradle TestKit
+// and measures the configuration, clean build, and no-op build times. Run it with
+// `./gradlew codegenBenchmark`. The Dart code is generated by a stand-in `protoc` plugin,
+// but `protoc` itself is required. It is taken from `PATH` or from `-Pmc-dart.benchmark.protoc`.
+// Other options are `-Pmc-dart.benchmark.sizes=100,1000`, `-Pmc-dart.benchmark.iterations=5`,
+// and `-Pmc-dart.benchmark.runProtoc=true`. The projects are built in a temporary directory
+// and deleted afterwards, unless `-Pmc-dart.benchmark.workDir` is passed to keep them.
+// The results are written to `build/reports/codegenBenchmark`.
+val codegenBenchmark: SourceSet by sourceSets.creating {
+    val main = sourceSets.main.get()
+    compileClasspath += main.output
+    runtimeClasspath += main.output
+}
+
+configurations {
+    named(codegenBenchmark.implementationConfigurationName) {
+        extendsFrom(testImplementation.get())
+    }
+    named(codegenBenchmark.runtimeOnlyConfigurationName) {
+        extendsFrom(testRuntimeOnly.get())
+    }
+}
+
+tasks.register<Test>("codegenBenchmark") {
+    group = "verification"
+    description = "Measures the code generation of projects with thousands of `.proto` files."
+    testClassesDirs = codegenBenchmark.output.classesDirs
+    classpath = codegenBenchmark.runtimeClasspath
+    useJUnitPlatform {
+        includeEngines("junit-jupiter")
+    }
+    listOf("sizes", "iterations", "protoc", "runProtoc", "workDir").forEach { option ->
+        val name = "mc-dart.benchmark.$option"
+        providers.gradleProperty(name).orNull?.let { systemProperty(name, it) }
+    }
+    systemProperty("mc-dart.benchmark.reportDir",
+                   layout.buildDirectory.dir("reports/$name").get().asFile)
+    outputs.upToDateWhen { false }
+}
+
 tasks {
 
     // The module has Kotlin sources.
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.protobuf.compiler.PluginProtos;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+import static org.gradle.testkit.runner.TaskOutcome.UP_TO_DATE;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the code generation of projects with thousands of {@code .proto} files.
+ *
+ * <p>For each {@linkplain #SIZES size}, the benchmark writes a {@linkplain SyntheticProtoTree
+ * synthetic project} applying mc-dart and measures:
+ * <ol>
+ *     <li>the configuration time, as the time of a dry run of the import resolution;
+ *     <li>the clean build time, as the time of the import resolution after {@code clean};
+ *     <li>the no-op build time, as the time of the import resolution with no changes.
+ * </ol>
+ *
+ * <p>Each measurement is repeated the given number of times, and the median is reported.
+ * The Gradle daemon is warmed up before the measurements. The results are published through
+ * the {@link TestReporter} and written in JSON to {@code <size>.json} in
+ * the {@linkplain #REPORT_DIR report directory}, if it is set.
+ *
+ * <p>The projects are written into the {@linkplain #WORK_DIR work directory}, if it is set,
+ * and kept there for inspection. Otherwise, they are written into a temporary directory,
+ * which is deleted after the benchmark.
+ *
+ * <p>The Dart code is generated by the {@linkplain StandInDartPlugin stand-in} plugin, so
+ * the Dart SDK is not required. {@code protoc} is taken from the system property
+ * {@value #PROTOC} or from {@code PATH}. If there is no {@code protoc}, the benchmark is skipped.
+ */
+@DisplayName("mc-dart code generation should scale to")
+class CodegenScalabilityBenchmark {
+
+    private static final String PREFIX = "mc-dart.benchmark.";
+    private static final String SIZES = PREFIX + "sizes";
+    private static final String ITERATIONS = PREFIX + "iterations";
+    private static final String PROTOC = PREFIX + "protoc";
+    private static final String RUN_PROTOC = PREFIX + "runProtoc";
+    private static final String WORK_DIR = PREFIX + "workDir";
+    private static final String REPORT_DIR = PREFIX + "reportDir";
+
+    private static final String TASK = "resolveImports";
+    private static final String PLUGIN_SCRIPT = "protoc-gen-dart";
+
+    @TempDir
+    @SuppressWarnings("PackageVisibleField") // Set by JUnit.
+    Path tempDir;
+
+    @TestFactory
+    Stream<DynamicTest> projectsOf(TestReporter reporter) {
+        var sizes = Splitter.on(',')
+                            .trimResults()
+                            .omitEmptyStrings()
+                            .splitToList(System.getProperty(SIZES, "100,1000,10000"));
+        return sizes.stream()
+                    .map(Integer::parseInt)
+                    .map(size -> DynamicTest.dynamicTest(size + " files",
+                                                         () -> measure(size, reporter)));
+    }
+
+    private void measure(int size, TestReporter reporter) throws IOException {
+        var protoc = protoc();
+        assumeTrue(protoc.isPresent(), "`protoc` is not found.");
+        var projectDir = workDir().resolve(String.valueOf(size));
+        if (Files.exists(projectDir)) {
+            MoreFiles.deleteRecursively(projectDir, RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+        var project = new BenchmarkProject(projectDir, protoc.get());
+        project.write(size);
+        project.run("help");
+
+        var iterations = Integer.getInteger(ITERATIONS, 3);
+        var configuration = new long[iterations];
+        var cleanBuild = new long[iterations];
+        var noOpBuild = new long[iterations];
+        for (var i = 0; i < iterations; i++) {
+            configuration[i] = project.time(TASK, "--dry-run");
+
+            project.run("clean");
+            project.deleteLib();
+            cleanBuild[i] = project.time(TASK);
+            assertThat(project.outcome()).isEqualTo(SUCCESS);
+            assertThat(project.generatedFiles()).isEqualTo((long) size);
+
+            noOpBuild[i] = project.time(TASK);
+            assertThat(project.outcome()).isEqualTo(UP_TO_DATE);
+        }
+        var results = ImmutableMap.<String, Long>builder()
+                .put("files", (long) size)
+                .put("iterations", (long) iterations)
+                .put("configurationMillis", median(configuration))
+                .put("cleanBuildMillis", median(cleanBuild))
+                .put("noOpBuildMillis", median(noOpBuild))
+                .build();
+        reporter.publishEntry(Maps.transformValues(results, String::valueOf));
+        writeReport(size, results);
+    }
+
+    private static Optional<Path> protoc() {
+        var configured = System.getProperty(PROTOC);
+        if (configured != null && !configured.isBlank()) {
+            return Optional.of(Path.of(configured));
+        }
+        var path = Optional.ofNullable(System.getenv("PATH")).orElse("");
+        return Splitter.on(File.pathSeparatorChar)
+                       .omitEmptyStrings()
+                       .splitToStream(path)
+                       .map(dir -> Path.of(dir, "protoc"))
+                       .filter(Files::isExecutable)
+                       .findFirst();
+    }
+
+    private Path workDir() {
+        var configured = System.getProperty(WORK_DIR);
+        return configured != null
+               ? Path.of(configured)
+               : tempDir;
+    }
+
+    private static long median(long[] values) {
+        var sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Writes the results into the report directory, if it is set.
+     */
+    private static void writeReport(int size, Map<String, Long> results) throws IOException {
+        var reportDir = System.getProperty(REPORT_DIR);
+        if (reportDir == null) {
+            return;
+        }
+        var json = new StringBuilder("{");
+        var separator = "\n";
+        for (var entry : results.entrySet()) {
+            json.append(separator)
+                .append("  \"").append(entry.getKey()).append("\": ")
+                .append(entry.getValue());
+            separator = ",\n";
+        }
+        json.append("\n}\n");
+        var report = Path.of(reportDir, size + ".json");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, json, UTF_8);
+    }
+
+    /**
+     * A synthetic Gradle project generating Dart code from a {@link SyntheticProtoTree}.
+     */
+    private static final class BenchmarkProject {
+
+        private final Path dir;
+        private final Path protoc;
+        private final ImmutableMap<String, String> environment;
+        private @MonotonicNonNull BuildResult lastResult;
+
+        private BenchmarkProject(Path dir, Path protoc) {
+            this.dir = dir;
+            this.protoc = protoc;
+            var path = dir.resolve("bin") + File.pathSeparator + System.getenv("PATH");
+            this.environment = ImmutableMap.<String, String>builder()
+                    .putAll(System.getenv())
+                    .put("PATH", path)
+                    .buildKeepingLast();
+        }
+
+        /**
+         * Writes the build scripts, the stand-in {@code protoc} plugin, and the tree of
+         * {@code .proto} files of the given size.
+         */
+        private void write(int size) throws IOException {
+            write("settings.gradle", ImmutableList.of("rootProject.name = 'codegen-benchmark'"));
+            write("build.gradle", buildScript());
+            var script = dir.resolve("bin/" + PLUGIN_SCRIPT);
+            write("bin/" + PLUGIN_SCRIPT, pluginScript());
+            assertThat(script.toFile().setExecutable(true)).isTrue();
+            SyntheticProtoTree.write(dir.resolve("src/main/proto"), size);
+        }
+
+        private ImmutableList<String> buildScript() {
+            var runProtoc = Boolean.getBoolean(RUN_PROTOC);
+            var plugin = unixPath(dir.resolve("bin/" + PLUGIN_SCRIPT));
+            return ImmutableList.of(
+                    "plugins {",
+                    "    id 'java'",
+                    "    id 'com.google.protobuf'",
+                    "    id 'io.spine.mc-dart'",
+                    "}",
+                    "",
+                    "protobuf {",
+                    "    protoc { path = '" + unixPath(protoc) + "' }",
+                    "    plugins { dart { path = '" + plugin + "' } }",
+                    "    generateProtoTasks {",
+                    "        all().each { task -> task.builtins.removeAll { it.name == 'java' } }",
+                    "    }",
+                    "}",
+                    "",
+                    "dart {",
+                    "    modules['shared'] = ['" + SyntheticProtoTree.firstPackage() + "']",
+                    "    runProtoc.set(" + runProtoc + ")",
+                    "}"
+            );
+        }
+
+        private static ImmutableList<String> pluginScript() {
+            var java = Path.of(System.getProperty("java.home"), "bin", "java");
+            var classpath = String.join(File.pathSeparator,
+                                        location(StandInDartPlugin.class),
+                                        location(PluginProtos.class));
+            return ImmutableList.of(
+                    "#!/bin/sh",
+                    "exec '" + java + "' -cp '" + classpath + "' "
+                            + StandInDartPlugin.class.getName()
+            );
+        }
+
+        private static String location(Class<?> cls) {
+            var source = cls.getProtectionDomain().getCodeSource().getLocation();
+            try {
+                return Path.of(source.toURI()).toString();
+            } catch (URISyntaxException e) {
+                throw illegalStateWithCauseOf(e);
+            }
+        }
+
+        private static String unixPath(Path path) {
+            return path.toString().replace(File.separatorChar, '/');
+        }
+
+        private void write(String path, Iterable<String> lines) throws IOException {
+            var file = dir.resolve(path);
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, UTF_8);
+        }
+
+        /**
+         * Runs the build with the given arguments and returns its wall time in milliseconds.
+         */
+        private long time(String... arguments) {
+            var start = System.nanoTime();
+            run(arguments);
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+
+        private void run(String... arguments) {
+            List<String> args = new ArrayList<>(Arrays.asList(arguments));
+            args.add("--stacktrace");
+            lastResult = GradleRunner.create()
+                    .withProjectDir(dir.toFile())
+                    .withPluginClasspath()
+                    .withEnvironment(environment)
+                    .withArguments(args)
+                    .build();
+        }
+
+        private TaskOutcome outcome() {
+            checkState(lastResult != null, "The build has not run yet.");
+            var task = lastResult.task(':' + TASK);
+            assertThat(task).isNotNull();
+            return task.getOutcome();
+        }
+
+        private void deleteLib() throws IOException {
+            var lib = dir.resolve("lib");
+            if (Files.exists(lib)) {
+                MoreFiles.deleteRecursively(lib, RecursiveDeleteOption.ALLOW_INSECURE);
+            }
+        }
+
+        /**
+         * Counts the {@code .pb.dart} files written into the {@code lib} directory.
+         */
+        private long generatedFiles() throws IOException {
+            try (var files = Files.walk(dir.resolve("lib"))) {
+                return files.filter(file -> file.toString().endsWith(".pb.dart"))
+                            .count();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.Feature;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+import static com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type.TYPE_MESSAGE;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * A stand-in for {@code protoc-gen-dart} which does not require the Dart SDK.
+ *
+ * <p>For each compiled {@code .proto} file, writes a {@code .pb.dart} and
+ * a {@code .pbjson.dart} file. Like the files generated by the real plugin, they import
+ * the files generated for the dependencies of the {@code .proto} file by relative paths
+ * and declare a class per message.
+ *
+ * <p>The plugin is launched by {@code protoc} through a script calling {@link #main}.
+ */
+public final class StandInDartPlugin {
+
+    private static final String PB_DART = ".pb.dart";
+    private static final String PBJSON_DART = ".pbjson.dart";
+    private static final String PROTO = ".proto";
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private StandInDartPlugin() {
+    }
+
+    /**
+     * Reads the code generation request from the standard input and writes the response
+     * to the standard output.
+     */
+    public static void main(String[] args) throws IOException {
+        var request = CodeGeneratorRequest.parseFrom(System.in);
+        var files = request.getProtoFileList()
+                           .stream()
+                           .collect(toMap(FileDescriptorProto::getName, Function.identity()));
+        var response = CodeGeneratorResponse.newBuilder()
+                .setSupportedFeatures(Feature.FEATURE_PROTO3_OPTIONAL_VALUE);
+        for (var name : request.getFileToGenerateList()) {
+            var file = files.get(name);
+            response.addFile(generated(file, PB_DART));
+            response.addFile(generated(file, PBJSON_DART));
+        }
+        response.build().writeTo(System.out);
+        System.out.flush();
+    }
+
+    private static CodeGeneratorResponse.File generated(FileDescriptorProto file,
+                                                        String extension) {
+        var name = withoutExtension(file.getName());
+        var directory = Path.of(name).getParent();
+        var content = new StringBuilder("// Generated by the stand-in `protoc-gen-dart`.\n\n")
+                .append("import 'dart:core' as $core;\n")
+                .append("import 'package:protobuf/protobuf.dart' as $pb;\n");
+        var index = 0;
+        for (var dependency : file.getDependencyList()) {
+            var path = relative(directory, withoutExtension(dependency)) + extension;
+            content.append(String.format("import '%s' as $%d;\n", path, index++));
+        }
+        for (var message : file.getMessageTypeList()) {
+            content.append('\n');
+            appendClass(content, message);
+        }
+        return CodeGeneratorResponse.File.newBuilder()
+                .setName(name + extension)
+                .setContent(content.toString())
+                .build();
+    }
+
+    private static void appendClass(StringBuilder content, DescriptorProto message) {
+        var name = message.getName();
+        content.append("class ").append(name).append(" extends $pb.GeneratedMessage {\n")
+               .append("  static final $pb.BuilderInfo _i = $pb.BuilderInfo('")
+               .append(name).append("')\n");
+        for (FieldDescriptorProto field : message.getFieldList()) {
+            var adder = field.getType() == TYPE_MESSAGE
+                        ? "aOM<$pb.GeneratedMessage>"
+                        : "aOS";
+            content.append(String.format("    ..%s(%d, '%s')\n",
+                                         adder, field.getNumber(), field.getJsonName()));
+        }
+        content.append("    ..hasRequiredFields = false;\n")
+               .append("}\n");
+    }
+
+    private static String withoutExtension(String protoFile) {
+        return protoFile.endsWith(PROTO)
+               ? protoFile.substring(0, protoFile.length() - PROTO.length())
+               : protoFile;
+    }
+
+    private static String relative(@Nullable Path directory, String target) {
+        var path = directory == null
+                   ? Path.of(target)
+                   : directory.relativize(Path.of(target));
+        return path.toString().replace(File.separatorChar, '/');
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A synthetic tree of {@code .proto} files with imports fanning out like in a real schema.
+ *
+ * <p>The files are grouped into packages of {@value #PACKAGE_SIZE} files. Each file declares
+ * a message and imports the previous file of its package and up to {@value #MAX_IMPORTS}
+ * random files declared earlier in the tree. Thus, the import graph has no cycles, and
+ * the imports cross the packages.
+ *
+ * <p>The tree of the given size is always the same.
+ */
+final class SyntheticProtoTree {
+
+    private static final int PACKAGE_SIZE = 25;
+    private static final int MAX_IMPORTS = 4;
+    private static final long SEED = 42L;
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private SyntheticProtoTree() {
+    }
+
+    /**
+     * Writes the tree of the given number of files into the given directory.
+     */
+    static void write(Path protoDir, int size) throws IOException {
+        var random = new Random(SEED);
+        for (var i = 0; i < size; i++) {
+            var imports = new TreeSet<Integer>();
+            if (i % PACKAGE_SIZE != 0) {
+                imports.add(i - 1);
+            }
+            var extra = i == 0 ? 0 : random.nextInt(MAX_IMPORTS + 1);
+            for (var k = 0; k < extra; k++) {
+                imports.add(random.nextInt(i));
+            }
+            var file = protoDir.resolve(path(i));
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, content(i, imports), UTF_8);
+        }
+    }
+
+    /**
+     * Obtains the directory pattern of the first package of the tree.
+     *
+     * <p>Used to declare the package as provided by an external Dart module.
+     */
+    static String firstPackage() {
+        return "bench/pkg0/*";
+    }
+
+    private static String path(int index) {
+        return String.format("bench/pkg%d/file%d.proto", packageOf(index), index);
+    }
+
+    private static int packageOf(int index) {
+        return index / PACKAGE_SIZE;
+    }
+
+    private static String content(int index, Set<Integer> imports) {
+        var result = new StringBuilder()
+                .append("syntax = \"proto3\";\n\n")
+                .append("package bench.pkg").append(packageOf(index)).append(";\n\n");
+        for (var i : imports) {
+            result.append("import \"").append(path(i)).append("\";\n");
+        }
+        result.append("\nmessage Message").append(index).append(" {\n")
+              .append("    string id = 1;\n");
+        var number = 2;
+        for (var i : imports) {
+            result.append(String.format("    bench.pkg%d.Message%d ref_%d = %d;\n",
+                                        packageOf(i), i, i, number++));
+        }
+        result.append("}\n");
+        return result.toString();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures resolving imports in a generated Dart file.
+ *
+ * <p>The synthetic file imports the Dart core library, the {@code protobuf} package, and
+ * the given number of generated files. Every other generated file is provided by
+ * an external module, so that half of the relative imports are rewritten.
+ *
+ * <p>The rest of the file is a message class body repeated to reach the given size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportResolverBenchmark {
+
+    private static final String BODY =
+            "class Task extends $pb.GeneratedMessage {\n"
+                    + "  static final $pb.BuilderInfo _i = $pb.BuilderInfo('Task')\n"
+                    + "    ..aOS(1, 'name')\n"
+                    + "    ..hasRequiredFields = false;\n"
+                    + "}\n\n";
+
+    @Param({"1", "10", "100"})
+    private int imports;
+
+    @Param({"1024", "65536", "1048576"})
+    private int size;
+
+    private Path dir;
+    private Path generated;
+    private Path target;
+    private String content;
+    private ImportResolver resolver;
+    private TaskReport report;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("import-resolver-benchmark");
+        var lib = dir.resolve("lib");
+        generated = dir.resolve("generated/company/client/tasks.pb.dart");
+        target = lib.resolve("company/client/tasks.pb.dart");
+        content = content(imports, size);
+        Files.createDirectories(generated.getParent());
+        Files.writeString(generated, content, UTF_8);
+        var modules = ModuleIndex.of(ImmutableMap.of(
+                "server", ImmutableList.of("company/server/*")
+        ));
+        resolver = new ImportResolver(lib, modules, false, CopyStrategy.COPY);
+        report = new TaskReport();
+    }
+
+    private static String content(int imports, int size) {
+        var result = new StringBuilder(size + imports * 64);
+        result.append("import 'dart:core' as $core;\n")
+              .append("import 'package:protobuf/protobuf.dart' as $pb;\n");
+        for (var i = 0; i < imports; i++) {
+            var dir = i % 2 == 0 ? "server" : "client";
+            result.append(String.format("import '../%s/type%d.pb.dart' as $%d;\n", dir, i, i));
+        }
+        result.append('\n');
+        while (result.length() < size) {
+            result.append(BODY);
+        }
+        return result.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        MoreFiles.deleteRecursively(dir, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    /**
+     * Resolves imports in the content which is already in memory.
+     */
+    @Benchmark
+    public String resolveContent() {
+        return resolver.resolve(content, target);
+    }
+
+    /**
+     * Reads the generated file, resolves imports in it, and writes the target file.
+     */
+    @Benchmark
+    public void readResolveWrite() {
+        resolver.resolve(generated, target, report);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching directories against the patterns of external modules.
+ *
+ * <p>Each synthetic module provides one recursive and one exact directory pattern.
+ * The looked up directories are a mix of directories provided recursively, provided exactly,
+ * and not provided by any module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleIndexBenchmark {
+
+    private static final int LOOKUPS = 64;
+
+    @Param({"10", "100", "1000"})
+    private int patterns;
+
+    private Map<String, List<String>> modules;
+    private ModuleIndex index;
+    private String[] directories;
+
+    @Setup
+    public void setUp() {
+        modules = new LinkedHashMap<>();
+        var count = patterns / 2;
+        for (var i = 0; i < count; i++) {
+            modules.put("module" + i, ImmutableList.of(
+                    String.format("company/domain%d/model/*", i),
+                    String.format("company/domain%d/api", i)
+            ));
+        }
+        index = ModuleIndex.of(modules);
+        directories = new String[LOOKUPS];
+        for (var i = 0; i < LOOKUPS; i++) {
+            var domain = i * 7 % count;
+            switch (i % 3) {
+                case 0:
+                    directories[i] = String.format("company/domain%d/model/nested/deep", domain);
+                    break;
+                case 1:
+                    directories[i] = String.format("company/domain%d/api", domain);
+                    break;
+                default:
+                    directories[i] = String.format("company/domain%d/internal", domain);
+            }
+        }
+    }
+
+    /**
+     * Compiles the index of all the modules.
+     */
+    @Benchmark
+    public ModuleIndex compile() {
+        return ModuleIndex.of(modules);
+    }
+
+    /**
+     * Looks up the modules of {@value #LOOKUPS} directories.
+     */
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        for (var directory : directories) {
+            blackhole.consume(index.moduleFor(directory));
+        }
+    }
+}
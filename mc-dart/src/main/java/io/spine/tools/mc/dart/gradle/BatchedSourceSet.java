@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
+
+/**
+ * A source set compiled by a {@link GenerateDart} task along with the source set of the task.
+ *
+ * <p>The {@code .proto} files of the source set are compiled in the same {@code protoc} run.
+ * The Dart files generated for them are put into the {@linkplain #getOutputDir() output
+ * directory} of this source set.
+ *
+ * @see McDartOptions#getBatchSourceSets()
+ */
+public abstract class BatchedSourceSet {
+
+    /**
+     * The name of the source set.
+     */
+    @Input
+    public abstract Property<String> getName();
+
+    /**
+     * The directories with the {@code .proto} files of the source set.
+     *
+     * <p>The files are tracked as the inputs of the task.
+     */
+    @Internal
+    public abstract ConfigurableFileCollection getSourceDirs();
+
+    /**
+     * The directories with the {@code .proto} files which are imported by the files of
+     * the source set but not compiled.
+     *
+     * <p>The files are tracked as the inputs of the task.
+     */
+    @Internal
+    public abstract ConfigurableFileCollection getIncludeDirs();
+
+    /**
+     * The directory into which the Dart code of the source set is generated.
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDir();
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.flogger.FluentLogger;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Task;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.process.ExecOperations;
+import org.gradle.work.DisableCachingByDefault;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.gradle.api.tasks.PathSensitivity.NONE;
+
+/**
+ * Compiles the {@code protoc} plugin for Dart into a native executable.
+ *
+ * <p>The task runs {@code dart compile exe}. The executable is shared by all the builds on
+ * the machine. So, the task is skipped if the {@linkplain #getExecutable() executable}
+ * already exists. The location of the executable depends on the version of the Dart SDK and
+ * on the sources of the plugin. So, when either changes, the executable is compiled anew.
+ *
+ * <p>The task is registered in each project which uses the executable. The tasks of all
+ * the projects use the {@link CompileProtocPluginService}, which lets them run one at a time.
+ * So, the executable is compiled once per build. Since it is shared, the executable is not
+ * declared as an output of the tasks.
+ *
+ * <p>The executable is first written to a temporary file and then moved to its location.
+ * So, the builds running at the same time never see a partially written executable.
+ *
+ * @see NativeProtocPlugin
+ * @see McDartOptions#getCompileProtocPlugin()
+ */
+@DisableCachingByDefault(because = "The executable is stored in a cache of its own.")
+public abstract class CompileProtocPlugin extends DefaultTask {
+
+    /**
+     * The name of the task.
+     */
+    static final String NAME = "compileProtocPlugin";
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final String DART = "dart";
+
+    @Inject
+    protected abstract ExecOperations getExecOperations();
+
+    protected CompileProtocPlugin() {
+        super();
+        getDartExecutable().convention(DART);
+        onlyIf(new ExecutableMissing(getExecutable()));
+    }
+
+    /**
+     * The Dart file from which the executable is compiled.
+     */
+    @InputFile
+    @PathSensitive(NONE)
+    public abstract RegularFileProperty getEntryPoint();
+
+    /**
+     * The package configuration with which the entry point is compiled.
+     *
+     * <p>If not set, the configuration is looked up by the Dart compiler next to
+     * the entry point.
+     */
+    @Optional
+    @InputFile
+    @PathSensitive(NONE)
+    public abstract RegularFileProperty getPackageConfig();
+
+    /**
+     * The Dart SDK command used for the compilation.
+     *
+     * <p>Defaults to {@code dart}, which is looked up in {@code PATH}.
+     */
+    @Input
+    public abstract Property<String> getDartExecutable();
+
+    /**
+     * The native executable to create.
+     */
+    @Internal
+    public abstract RegularFileProperty getExecutable();
+
+    @TaskAction
+    void compile() {
+        var executable = getExecutable().getAsFile().get().toPath();
+        var temp = executable.resolveSibling(executable.getFileName() + "." + UUID.randomUUID());
+        var args = new ArrayList<String>();
+        args.add("compile");
+        args.add("exe");
+        if (getPackageConfig().isPresent()) {
+            args.add("--packages=" + getPackageConfig().getAsFile().get());
+        }
+        args.add(getEntryPoint().getAsFile().get().toString());
+        args.add("-o");
+        args.add(temp.toString());
+        log.atFine().log("Compiling `%s` into `%s`.", getEntryPoint().get(), executable);
+        try {
+            Files.createDirectories(executable.getParent());
+            getExecOperations().exec(spec -> {
+                spec.executable(getDartExecutable().get());
+                spec.args(args);
+            });
+            moveToCache(temp, executable);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        } finally {
+            TargetFiles.delete(temp);
+        }
+    }
+
+    private static void moveToCache(Path temp, Path executable) throws IOException {
+        try {
+            Files.move(temp, executable, ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (!Files.exists(executable)) {
+                throw e;
+            }
+            log.atFine().log("`%s` is already compiled by another build.", executable);
+        }
+    }
+
+    /**
+     * Allows the task to run only if the executable does not exist yet.
+     */
+    private static final class ExecutableMissing implements Spec<Task> {
+
+        private final Provider<RegularFile> executable;
+
+        private ExecutableMissing(Provider<RegularFile> executable) {
+            this.executable = executable;
+        }
+
+        @Override
+        public boolean isSatisfiedBy(Task task) {
+            return !executable.get().getAsFile().exists();
+        }
+    }
+}
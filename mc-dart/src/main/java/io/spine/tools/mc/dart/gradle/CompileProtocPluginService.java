@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Lets only one {@link CompileProtocPlugin} task of the build run at a time.
+ *
+ * <p>Each project compiling the {@code protoc} plugin for Dart has a task of its own.
+ * The tasks share the executable. The service has a single parallel usage, so the first task
+ * compiles the executable, and the others find it and are skipped.
+ *
+ * <p>The service holds no state. Gradle uses it only to order the tasks.
+ */
+public abstract class CompileProtocPluginService
+        implements BuildService<BuildServiceParameters.None> {
+
+    private static final String NAME = "mcDartCompileProtocPlugin";
+
+    /**
+     * Registers the service shared by the build of the given project, if it is not yet
+     * registered.
+     */
+    static Provider<CompileProtocPluginService> register(Project project) {
+        checkNotNull(project);
+        return project.getGradle()
+                      .getSharedServices()
+                      .registerIfAbsent(NAME, CompileProtocPluginService.class,
+                                        spec -> spec.getMaxParallelUsages().set(1));
+    }
+}
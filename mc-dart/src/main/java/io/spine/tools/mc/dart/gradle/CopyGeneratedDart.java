@@ -0,0 +1,324 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import io.spine.tools.mc.dart.gradle.McDartEvents.CopyBatch;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Task;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFiles;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.DisableCachingByDefault;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_WRITTEN;
+import static org.gradle.api.tasks.PathSensitivity.RELATIVE;
+
+/**
+ * Copies the Dart files generated from Protobuf into the directory of a source set.
+ *
+ * <p>The files subject to import resolution are not copied by this task. They are placed into
+ * the target directory by the {@link ResolveImports} task. If the copying is
+ * {@linkplain #getFused() fused} with the import resolution, this task is skipped without
+ * walking the generated directory.
+ *
+ * <p>The task is incremental. Only the files added or modified since the previous run are
+ * copied. When a generated file is removed, its copy in the target directory is deleted
+ * as well.
+ *
+ * <p>The task records the files it has copied in the {@linkplain #getManifest() manifest}.
+ * In the {@linkplain #getSync() sync} mode, the previously copied files which are no longer
+ * generated are deleted even if Gradle does not report them as removed, e.g. after
+ * the {@code build} directory was cleaned.
+ */
+@DisableCachingByDefault(because = "Copying files is cheaper than loading them from the cache.")
+public abstract class CopyGeneratedDart extends DefaultTask {
+
+    private static final String MANIFEST_DIR = "mc-dart";
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String PRUNE = "prune";
+    private static final String COPY = "copy";
+    private static final String RECORD = "record";
+
+    private final FileCollection generatedFiles;
+
+    @Inject
+    protected abstract ProjectLayout getLayout();
+
+    protected CopyGeneratedDart() {
+        super();
+        var manifest = MANIFEST_DIR + '/' + getName() + MANIFEST_EXTENSION;
+        getManifest().convention(getLayout().getBuildDirectory().file(manifest));
+        getCopyStrategy().convention(CopyStrategy.COPY);
+        getReport().convention(TaskReport.defaultFile(getLayout(), getName()));
+        onlyIf(new NotFused(getFused()));
+        this.generatedFiles = getLayout().files(getGeneratedDir().map(this::copiedFiles));
+    }
+
+    /**
+     * The directory into which {@code protoc} puts the generated Dart files.
+     */
+    @Internal
+    public abstract DirectoryProperty getGeneratedDir();
+
+    /**
+     * The directory into which the files are copied.
+     */
+    @Internal
+    public abstract DirectoryProperty getTargetDir();
+
+    /**
+     * Patterns of the generated files subject to import resolution, which are not copied
+     * by this task.
+     *
+     * @see McDartOptions#getIncludes()
+     */
+    @Input
+    public abstract ListProperty<String> getIncludes();
+
+    /**
+     * Patterns of the generated files excluded from import resolution, which are copied
+     * by this task.
+     *
+     * @see McDartOptions#getExcludes()
+     */
+    @Input
+    public abstract ListProperty<String> getExcludes();
+
+    /**
+     * Tells if all the generated files are placed into the target directory by
+     * the {@link ResolveImports} task.
+     *
+     * @see McDartOptions#getFuseCopy()
+     */
+    @Input
+    public abstract Property<Boolean> getFused();
+
+    /**
+     * Tells if the previously copied files which are no longer generated are deleted.
+     *
+     * @see McDartOptions#getSync()
+     */
+    @Input
+    public abstract Property<Boolean> getSync();
+
+    /**
+     * Tells if the target files are written only when their content changes.
+     *
+     * @see McDartOptions#getWriteOnlyIfChanged()
+     */
+    @Internal
+    public abstract Property<Boolean> getWriteOnlyIfChanged();
+
+    /**
+     * Defines how the files are placed into the target directory.
+     *
+     * <p>Defaults to {@link CopyStrategy#COPY COPY}.
+     *
+     * @see McDartOptions#getCopyStrategy()
+     */
+    @Internal
+    public abstract Property<CopyStrategy> getCopyStrategy();
+
+    /**
+     * The file listing the files copied by this task.
+     *
+     * <p>The manifest is not an output of the task. It describes the state of the target
+     * directory and must survive the reruns of the task.
+     *
+     * <p>Defaults to {@code build/mc-dart/<task name>.manifest}.
+     */
+    @Internal
+    public abstract RegularFileProperty getManifest();
+
+    /**
+     * The file into which the {@linkplain TaskReport performance report} of the copying is written.
+     *
+     * <p>The report is rewritten on each execution of the task. It is not an output of
+     * the task.
+     *
+     * <p>Defaults to {@code build/reports/mc-dart/<task name>.json}.
+     */
+    @Internal
+    public abstract RegularFileProperty getReport();
+
+    /**
+     * The name of the source set processed by the task, as mentioned in the report.
+     */
+    @Internal
+    public abstract Property<String> getSourceSetName();
+
+    /**
+     * The generated files which are copied by this task.
+     */
+    @InputFiles
+    @Incremental
+    @IgnoreEmptyDirectories
+    @PathSensitive(RELATIVE)
+    public FileCollection getGeneratedFiles() {
+        return generatedFiles;
+    }
+
+    /**
+     * The copies of the {@linkplain #getGeneratedFiles() generated files} in the target
+     * directory, keyed by their paths relative to the target directory.
+     */
+    @OutputFiles
+    public Map<String, File> getCopiedFiles() {
+        var files = copiedFiles(getGeneratedDir().get());
+        var targetDir = getTargetDir().get();
+        Map<String, File> result = new HashMap<>();
+        files.visit(details -> {
+            if (!details.isDirectory()) {
+                var path = details.getPath();
+                result.put(path, targetDir.file(path).getAsFile());
+            }
+        });
+        return result;
+    }
+
+    private FileTree copiedFiles(Directory generatedDir) {
+        var copiedByResolve = new CopiedByResolve(getFused(), getIncludes(), getExcludes());
+        return generatedDir.getAsFileTree()
+                           .matching(copied -> copied.exclude(copiedByResolve));
+    }
+
+    @TaskAction
+    void copy(InputChanges changes) {
+        var report = new TaskReport();
+        var generatedDir = getGeneratedDir().get();
+        var targetDir = getTargetDir().get();
+        var manifest = new Manifest(path(getManifest().getAsFile()));
+        if (getSync().get()) {
+            report.time(PRUNE, () -> manifest.prune(path(generatedDir.getAsFile()),
+                                                   path(targetDir.getAsFile())));
+        }
+        var onlyIfChanged = getWriteOnlyIfChanged().get();
+        var strategy = getCopyStrategy().get();
+        report.time(COPY, () -> {
+            var event = new CopyBatch();
+            event.begin();
+            var files = 0;
+            var written = report.get(BYTES_WRITTEN);
+            for (var change : changes.getFileChanges(generatedFiles)) {
+                if (change.getFileType() == FileType.DIRECTORY) {
+                    continue;
+                }
+                var path = change.getNormalizedPath();
+                var target = path(targetDir.file(path).getAsFile());
+                if (change.getChangeType() == ChangeType.REMOVED) {
+                    TargetFiles.delete(target);
+                } else {
+                    var generatedFile = path(generatedDir.file(path).getAsFile());
+                    TargetFiles.copy(generatedFile, target, onlyIfChanged, strategy, report);
+                    files++;
+                }
+            }
+            event.record(getPath(), files, report.get(BYTES_WRITTEN) - written);
+        });
+        report.time(RECORD, () -> manifest.record(getCopiedFiles().keySet()));
+        report.write(path(getReport().getAsFile()),
+                     this, CopyGeneratedDart.class,
+                     getSourceSetName().getOrElse(""),
+                     changes.isIncremental());
+    }
+
+    private static Path path(Provider<File> file) {
+        return file.get().toPath();
+    }
+
+    private static Path path(File file) {
+        return file.toPath();
+    }
+
+    /**
+     * Matches the generated files which are placed into the target directory by
+     * the {@link ResolveImports} tasks rather than by the copy tasks.
+     */
+    private static final class CopiedByResolve implements Spec<FileTreeElement> {
+
+        private final Provider<Boolean> fused;
+        private final ResolvedFiles resolvedFiles;
+
+        private CopiedByResolve(Provider<Boolean> fused,
+                                Provider<List<String>> includes,
+                                Provider<List<String>> excludes) {
+            this.fused = fused;
+            this.resolvedFiles = new ResolvedFiles(includes, excludes);
+        }
+
+        @Override
+        public boolean isSatisfiedBy(FileTreeElement element) {
+            if (element.isDirectory()) {
+                return false;
+            }
+            return fused.get() || resolvedFiles.isSatisfiedBy(element);
+        }
+    }
+
+    /**
+     * Allows the task to run only if the copying is not fused with the import resolution.
+     */
+    private static final class NotFused implements Spec<Task> {
+
+        private final Provider<Boolean> fused;
+
+        private NotFused(Provider<Boolean> fused) {
+            this.fused = fused;
+        }
+
+        @Override
+        public boolean isSatisfiedBy(Task task) {
+            return !fused.get();
+        }
+    }
+}
@@ -26,12 +26,11 @@
 
 package io.spine.tools.mc.dart.gradle;
 
-import com.google.common.collect.ImmutableMap;
 import io.spine.tools.code.SourceSetName;
 import io.spine.tools.gradle.task.TaskName;
 import org.gradle.api.Project;
 import org.gradle.api.file.Directory;
-import org.gradle.api.tasks.Copy;
+import org.gradle.api.provider.Provider;
 
 import java.io.File;
 
@@ -41,13 +40,25 @@ import static io.spine.tools.gradle.project.Projects.getSourceSetNames;
 import static io.spine.tools.gradle.task.BaseTaskName.assemble;
 import static io.spine.tools.gradle.task.ProtobufTaskName.generateProto;
 import static io.spine.tools.mc.dart.gradle.McDartTaskName.copyGeneratedDart;
+import static io.spine.tools.mc.dart.gradle.McDartTaskName.generateDart;
 import static io.spine.tools.mc.dart.gradle.Projects.getMcDart;
 import static io.spine.tools.mc.dart.gradle.StandardTypes.camelToSnake;
-import static org.gradle.api.Task.TASK_TYPE;
 
 /**
  * Creates {@link McDartTaskName#copyGeneratedDart(SourceSetName) copyGeneratedDart} tasks
  * in a project.
+ *
+ * <p>The tasks are registered lazily. They are created and configured only if they are
+ * needed for the build.
+ *
+ * <p>The Dart files subject to import resolution are not copied by these tasks. Such files are
+ * placed into the target directory by the {@link ResolveImports} tasks along with resolving
+ * imports. See {@link McDartOptions#getIncludes()} and {@link McDartOptions#getExcludes()}.
+ *
+ * <p>If the copying is {@linkplain McDartOptions#getFuseCopy() fused} with the import
+ * resolution, these tasks copy nothing.
+ *
+ * @see CopyGeneratedDart
  */
 final class CopyTask {
 
@@ -74,27 +85,37 @@ final class CopyTask {
 
     private void createTask(SourceSetName ssn) {
         var taskName = copyGeneratedDart(ssn);
-        var task = (Copy) project.task(ImmutableMap.of(TASK_TYPE, Copy.class), taskName.value());
-
-        var sourceDir = sourceDir(ssn);
-        task.from(sourceDir);
-
-        var targetDir = targetDir(ssn);
-        task.into(targetDir);
-
-        var runAfter = generateProto(ssn);
-        task.dependsOn(runAfter.name());
-
-        project.getTasks()
-               .getByName(assemble.name())
-               .dependsOn(taskName.value());
+        var tasks = project.getTasks();
+        tasks.register(taskName.value(), CopyGeneratedDart.class, task -> {
+            var options = getMcDart(project);
+            task.getGeneratedDir().set(sourceDir(project, ssn));
+            task.getTargetDir().set(targetDir(project, ssn));
+            task.getIncludes().set(options.getIncludes());
+            task.getExcludes().set(options.getExcludes());
+            task.getFused().set(options.getFuseCopy());
+            task.getSync().set(options.getSync());
+            task.getWriteOnlyIfChanged().set(options.getWriteOnlyIfChanged());
+            task.getCopyStrategy().set(options.getCopyStrategy());
+            task.getSourceSetName().set(ssn.getValue());
+
+            var runAfter = generateProto(ssn);
+            task.dependsOn(runAfter.name(), generateDart(ssn).name());
+        });
+        tasks.named(assemble.name())
+             .configure(assembleTask -> assembleTask.dependsOn(taskName.value()));
     }
 
-    private Directory sourceDir(SourceSetName ssn) {
+    /**
+     * Obtains the directory into which {@code protoc} puts the Dart code generated for
+     * the given source set.
+     *
+     * <p>The returned provider is evaluated lazily, so the options configured after
+     * the plugin is applied are taken into account.
+     */
+    static Provider<Directory> sourceDir(Project project, SourceSetName ssn) {
         var options = getMcDart(project);
         var sourceDir = options.getGeneratedBaseDir()
-                               .dir(ssn.getValue() + File.separator + dart.name())
-                               .get();
+                               .dir(ssn.getValue() + File.separator + dart.name());
         return sourceDir;
     }
 
@@ -110,20 +131,23 @@ final class CopyTask {
      * <p>For a custom source set, the directory named after the {@code snake_case} of
      * the given source set under the root of the project will be returned. E.g. if the given
      * source set is {@code integrationTest} the directory would be {@code integration_test}.
+     *
+     * <p>The returned provider is evaluated lazily, so the options configured after
+     * the plugin is applied are taken into account.
      */
-    private Directory targetDir(SourceSetName ssn) {
+    static Provider<Directory> targetDir(Project project, SourceSetName ssn) {
         var options = getMcDart(project);
         if (ssn.equals(SourceSetName.main)) {
-            return options.getLibDir().get();
+            return options.getLibDir();
         }
         if (ssn.equals(SourceSetName.test)) {
-            return options.getTestDir().get();
+            return options.getTestDir();
         }
 
         var ssnSnailCase = camelToSnake(ssn.getValue());
         var customTarget = project.getLayout()
                                   .getProjectDirectory()
                                   .dir(ssnSnailCase);
-        return customTarget;
+        return project.provider(() -> customTarget);
     }
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.hash.HashCode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * A content-addressed cache of the Dart files generated from {@code .proto} files.
+ *
+ * <p>Each entry is a directory named after its key. The entry holds the files generated for
+ * a single {@code .proto} file, under their paths relative to the output directory.
+ *
+ * <p>The cache may be shared by concurrent builds. An entry is prepared in a temporary
+ * directory and then atomically moved in place. An entry is evicted by being moved away
+ * first. So, the readers see either a complete entry or no entry at all. If an entry
+ * disappears while being restored, the restoration is reported as a miss.
+ *
+ * <p>The entries are evicted in the least recently used order once the total size of
+ * the cache exceeds the limit. The last modification time of an entry directory is updated
+ * on each hit and serves as the time of its last use.
+ */
+final class DartOutputCache {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    private final Path dir;
+    private final long maxSize;
+
+    /**
+     * Creates a cache in the given directory.
+     *
+     * @param dir
+     *         the directory of the cache
+     * @param maxSize
+     *         the maximum total size of the cached files in bytes
+     */
+    DartOutputCache(Path dir, long maxSize) {
+        checkNotNull(dir);
+        checkArgument(maxSize >= 0, "The maximum size of the cache cannot be negative.");
+        this.dir = dir;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Copies the files of the entry with the given key into the output directory.
+     *
+     * @return {@code true} if the entry is found and restored, {@code false} otherwise
+     */
+    boolean restore(HashCode key, Path outputDir) {
+        var entry = dir.resolve(key.toString());
+        if (!Files.isDirectory(entry)) {
+            return false;
+        }
+        var restored = new ArrayList<Path>();
+        try {
+            for (var file : files(entry)) {
+                var target = outputDir.resolve(entry.relativize(file).toString());
+                Files.createDirectories(target.getParent());
+                Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                restored.add(target);
+            }
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            log.atFine().withCause(e).log("Cannot restore the cache entry `%s`.", key);
+            restored.forEach(TargetFiles::delete);
+            return false;
+        }
+    }
+
+    /**
+     * Stores the given files as the entry with the given key.
+     *
+     * <p>Does nothing if the entry already exists. A failure to store the entry is logged
+     * and otherwise ignored.
+     *
+     * @param key
+     *         the key of the entry
+     * @param outputDir
+     *         the directory with the files
+     * @param files
+     *         the files to store, relative to the output directory
+     */
+    void store(HashCode key, Path outputDir, Collection<String> files) {
+        var entry = dir.resolve(key.toString());
+        if (Files.isDirectory(entry)) {
+            return;
+        }
+        var temp = dir.resolve(TEMP_PREFIX + UUID.randomUUID());
+        try {
+            Files.createDirectories(temp);
+            for (var file : files) {
+                var target = temp.resolve(file);
+                Files.createDirectories(target.getParent());
+                Files.copy(outputDir.resolve(file), target);
+            }
+            Files.move(temp, entry, ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+            delete(temp);
+        } catch (IOException e) {
+            log.atWarning().withCause(e).log("Cannot store the cache entry `%s`.", key);
+            delete(temp);
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the size of the cache fits the limit.
+     */
+    void evict() {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try {
+            var entries = entries();
+            var total = entries.stream()
+                               .mapToLong(entry -> entry.size)
+                               .sum();
+            for (var entry : entries) {
+                if (total <= maxSize) {
+                    break;
+                }
+                var evicted = dir.resolve(TEMP_PREFIX + UUID.randomUUID());
+                Files.move(entry.dir, evicted, ATOMIC_MOVE);
+                delete(evicted);
+                total -= entry.size;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.atWarning().withCause(e).log("Cannot evict the entries of the cache `%s`.", dir);
+        }
+    }
+
+    /**
+     * Obtains the entries of the cache from the least to the most recently used.
+     */
+    private List<Entry> entries() throws IOException {
+        try (var dirs = Files.list(dir)) {
+            var result = new ArrayList<Entry>();
+            for (var entry : (Iterable<Path>) dirs::iterator) {
+                var name = entry.getFileName().toString();
+                if (Files.isDirectory(entry) && !name.startsWith(TEMP_PREFIX)) {
+                    result.add(new Entry(entry));
+                }
+            }
+            result.sort(Comparator.comparing((Entry entry) -> entry.lastUsed)
+                                  .thenComparing(entry -> entry.dir));
+            return result;
+        }
+    }
+
+    private static List<Path> files(Path dir) throws IOException {
+        try (var files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    private static void delete(Path dir) {
+        try {
+            if (Files.exists(dir)) {
+                var paths = new ArrayList<Path>();
+                try (var walk = Files.walk(dir)) {
+                    walk.forEach(paths::add);
+                }
+                paths.sort(Comparator.reverseOrder());
+                for (var path : paths) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            log.atFine().withCause(e).log("Cannot delete `%s`.", dir);
+        }
+    }
+
+    /**
+     * An entry of the cache.
+     */
+    private static final class Entry {
+
+        private final Path dir;
+        private final FileTime lastUsed;
+        private final long size;
+
+        private Entry(Path dir) throws IOException {
+            this.dir = dir;
+            this.lastUsed = Files.getLastModifiedTime(dir);
+            var size = 0L;
+            for (var file : files(dir)) {
+                size += Files.size(file);
+            }
+            this.size = size;
+        }
+    }
+}
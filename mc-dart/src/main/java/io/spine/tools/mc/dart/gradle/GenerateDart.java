@@ -0,0 +1,685 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_READ;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_WRITTEN;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.FILES_REWRITTEN;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.FILES_SCANNED;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.gradle.api.tasks.PathSensitivity.NONE;
+import static org.gradle.api.tasks.PathSensitivity.RELATIVE;
+
+/**
+ * Generates Dart code from the {@code .proto} files of a source set.
+ *
+ * <p>The task runs {@code protoc} with the Dart plugin on its own, rather than as a part
+ * of a {@code generateProto} task. The {@code .proto} files are split into
+ * {@linkplain ProtoShards shards} of a balanced size, and a {@code protoc} process per shard
+ * is run by the Gradle workers in parallel.
+ *
+ * <p>Each shard is generated into a separate directory. Then the outputs of the shards are
+ * moved to the {@linkplain #getOutputDir() output directory} in the order of the shards.
+ * The files generated for different {@code .proto} files never coincide. If they do,
+ * the task fails, so the result never depends on the order in which the shards complete.
+ *
+ * <p>In the {@linkplain #getIncremental() incremental} mode, the task keeps
+ * the {@linkplain #getImportGraph() graph} of imports between the {@code .proto} files.
+ * The graph is built from the descriptors written by {@code protoc} along with the Dart code.
+ * When some {@code .proto} files change, the task compiles only them and the files which import
+ * them directly or transitively. The Dart files generated for the other {@code .proto} files
+ * are kept. The files generated for a {@code .proto} file are found by the naming convention
+ * of the Dart plugin. See {@link GeneratedDartFiles}.
+ *
+ * <p>If the {@linkplain #getCacheDir() cache directory} is set, the files generated for each
+ * {@code .proto} file are stored in a {@linkplain DartOutputCache content-addressed cache}.
+ * The key of an entry covers the path and the content of the {@code .proto} file and all
+ * the files it imports transitively, the {@code protoc} executable, the Dart plugin, and
+ * its options. The files found in the cache are restored instead of being compiled.
+ *
+ * <p>The task may also compile {@linkplain #getBatchedSourceSets() other source sets} in
+ * the same {@code protoc} run. The files generated for each of them are put into the output
+ * directory of the source set. The paths of the {@code .proto} files relative to their source
+ * directories must then be unique across all the source sets.
+ *
+ * @see McDartOptions#getRunProtoc()
+ */
+@CacheableTask
+public abstract class GenerateDart extends DefaultTask {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final String PROTO_FILES = "**/*.proto";
+    private static final String SHARD_DIR = "shard-%d";
+    private static final String DESCRIPTORS_FILE = ".desc";
+    private static final String GRAPH_DIR = "mc-dart";
+    private static final String GRAPH_EXTENSION = ".imports";
+    private static final String CACHE_VERSION = "1";
+    private static final String SCAN_OUTPUTS = "scanOutputs";
+    private static final String SCAN_PROTOS = "scanProtos";
+    private static final String SCAN_AFFECTED = "scanAffected";
+    private static final String HASH = "hash";
+    private static final String RESTORE = "restore";
+    private static final String PROTOC = "protoc";
+    private static final String MERGE = "merge";
+    private static final String GRAPH = "graph";
+    private static final String STORE = "store";
+
+    private final FileCollection protoFiles;
+    private final List<BatchedSourceSet> batchedSourceSets = new ArrayList<>();
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    @Inject
+    protected abstract ProjectLayout getLayout();
+
+    @Inject
+    protected abstract ObjectFactory getObjects();
+
+    protected GenerateDart() {
+        super();
+        getIncremental().convention(false);
+        var graph = GRAPH_DIR + '/' + getName() + GRAPH_EXTENSION;
+        getImportGraph().convention(getLayout().getBuildDirectory().file(graph));
+        getReport().convention(TaskReport.defaultFile(getLayout(), getName()));
+        this.protoFiles = getSourceDirs().getAsFileTree()
+                                         .matching(files -> files.include(PROTO_FILES));
+    }
+
+    /**
+     * The directories with the {@code .proto} files to compile.
+     */
+    @Internal
+    public abstract ConfigurableFileCollection getSourceDirs();
+
+    /**
+     * The directories with the {@code .proto} files which are imported but not compiled.
+     */
+    @InputFiles
+    @Incremental
+    @IgnoreEmptyDirectories
+    @PathSensitive(RELATIVE)
+    public abstract ConfigurableFileCollection getIncludeDirs();
+
+    /**
+     * The {@code protoc} executable.
+     */
+    @InputFiles
+    @PathSensitive(NONE)
+    public abstract ConfigurableFileCollection getProtoc();
+
+    /**
+     * The {@code protoc} plugin for Dart.
+     */
+    @InputFile
+    @PathSensitive(NONE)
+    public abstract RegularFileProperty getPlugin();
+
+    /**
+     * The options passed to the {@code protoc} plugin for Dart.
+     *
+     * <p>Empty by default.
+     */
+    @Input
+    public abstract ListProperty<String> getPluginOptions();
+
+    /**
+     * The maximum number of {@code protoc} processes run in parallel.
+     *
+     * @see McDartOptions#getProtocShards()
+     */
+    @Internal
+    public abstract Property<Integer> getShards();
+
+    /**
+     * The directory into which the Dart code is generated.
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDir();
+
+    /**
+     * Tells whether only the Dart code affected by the changed {@code .proto} files
+     * is regenerated.
+     *
+     * <p>Defaults to {@code false}.
+     *
+     * @see McDartOptions#getIncrementalGeneration()
+     */
+    @Input
+    public abstract Property<Boolean> getIncremental();
+
+    /**
+     * The file storing the graph of imports between the {@code .proto} files.
+     *
+     * <p>Written only in the {@linkplain #getIncremental() incremental} mode. The graph is
+     * an output of the task, so that it is restored from the build cache along with
+     * the generated code it describes.
+     *
+     * <p>Defaults to {@code build/mc-dart/<task name>.imports}.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getImportGraph();
+
+    /**
+     * The directory of the cache of the generated files.
+     *
+     * <p>If not set, the cache is not used.
+     *
+     * @see McDartOptions#getOutputCache()
+     */
+    @Internal
+    public abstract DirectoryProperty getCacheDir();
+
+    /**
+     * The maximum total size of the files in the cache, in bytes.
+     *
+     * @see McDartOptions#getOutputCacheSize()
+     */
+    @Internal
+    public abstract Property<Long> getCacheSize();
+
+    /**
+     * The file into which the {@linkplain TaskReport performance report} of the generation
+     * is written.
+     *
+     * <p>The report is rewritten on each execution. It is not an output of the task, so it
+     * does not affect the caching.
+     *
+     * <p>Defaults to {@code build/reports/mc-dart/<task name>.json}.
+     */
+    @Internal
+    public abstract RegularFileProperty getReport();
+
+    /**
+     * The name of the source set compiled by the task, as mentioned in the report.
+     */
+    @Internal
+    public abstract Property<String> getSourceSetName();
+
+    /**
+     * Other source sets compiled by this task.
+     *
+     * @see McDartOptions#getBatchSourceSets()
+     */
+    @Nested
+    public List<BatchedSourceSet> getBatchedSourceSets() {
+        return batchedSourceSets;
+    }
+
+    /**
+     * Adds a source set to be compiled by this task.
+     *
+     * <p>The {@code .proto} files of the source set and its imports are added to
+     * the {@linkplain #getSourceDirs() source} and {@linkplain #getIncludeDirs() include}
+     * directories of the task.
+     *
+     * @param name
+     *         the name of the source set
+     * @param action
+     *         configures the source set
+     */
+    public void batch(String name, Action<? super BatchedSourceSet> action) {
+        var sourceSet = getObjects().newInstance(BatchedSourceSet.class);
+        sourceSet.getName().set(name);
+        action.execute(sourceSet);
+        getSourceDirs().from(sourceSet.getSourceDirs());
+        getIncludeDirs().from(sourceSet.getIncludeDirs());
+        batchedSourceSets.add(sourceSet);
+    }
+
+    /**
+     * The {@code .proto} files compiled by this task.
+     */
+    @InputFiles
+    @Incremental
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(RELATIVE)
+    public FileCollection getProtoFiles() {
+        return protoFiles;
+    }
+
+    @TaskAction
+    void generate(InputChanges changes) {
+        var report = new TaskReport();
+        var outputDirs = report.time(SCAN_OUTPUTS, this::outputDirs);
+        var graphFile = getImportGraph().get().getAsFile().toPath();
+        var incremental = getIncremental().get();
+        var sizes = report.time(SCAN_PROTOS, this::protoFileSizes);
+        report.add(FILES_SCANNED, sizes.size());
+        ProtoImportGraph graph;
+        if (incremental && changes.isIncremental()) {
+            graph = ProtoImportGraph.read(graphFile);
+            var affected = report.time(SCAN_AFFECTED,
+                                       () -> affectedFiles(changes, graph, sizes.keySet(),
+                                                           outputDirs));
+            log.atFine().log("Regenerating Dart for %d of %d files.",
+                             affected.size(), sizes.size());
+            affected.forEach(file -> deleteGenerated(outputDirs.forProto(file), file));
+            sizes.keySet().retainAll(affected);
+        } else {
+            graph = ProtoImportGraph.empty();
+            getFileSystemOperations().delete(spec -> spec.delete(outputDirs.all(), graphFile));
+        }
+        var cached = getCacheDir().isPresent();
+        var sources = new ProtoSources(protoPath());
+        Map<String, HashCode> keys = cached
+                                     ? report.time(HASH, () -> cacheKeys(sources, sizes.keySet()))
+                                     : Map.of();
+        if (cached) {
+            var restored = report.time(RESTORE, () -> restore(keys, outputDirs, report));
+            log.atFine().log("Restored Dart for %d of %d files from the cache.",
+                             restored.size(), sizes.size());
+            sizes.keySet().removeAll(restored);
+            graph.update(sources.knownImports());
+        }
+        var shards = ProtoShards.split(sizes, getShards().get());
+        report.add(BYTES_READ, sizes.values()
+                                    .stream()
+                                    .mapToLong(Long::longValue)
+                                    .sum());
+        var shardDirs = report.time(PROTOC, () -> generate(shards, incremental));
+        report.time(MERGE, () -> merge(shardDirs, outputDirs, report));
+        if (incremental) {
+            report.time(GRAPH, () -> {
+                shardDirs.forEach(dir -> graph.update(readDescriptors(dir)));
+                graph.write(graphFile);
+            });
+        }
+        if (cached) {
+            report.time(STORE, () -> store(keys, sizes.keySet(), outputDirs));
+        }
+        report.write(getReport().getAsFile().get().toPath(),
+                     this, GenerateDart.class,
+                     getSourceSetName().getOrElse(""),
+                     incremental && changes.isIncremental());
+    }
+
+    /**
+     * Obtains the output directories of the compiled {@code .proto} files.
+     */
+    private OutputDirs outputDirs() {
+        var outputDir = getOutputDir().get().getAsFile().toPath();
+        Map<String, Path> dirs = new TreeMap<>();
+        for (var sourceSet : batchedSourceSets) {
+            var dir = sourceSet.getOutputDir().get().getAsFile().toPath();
+            visitProtoFiles(sourceSet.getSourceDirs(), (path, size) -> dirs.put(path, dir));
+        }
+        return new OutputDirs(outputDir, dirs);
+    }
+
+    /**
+     * Obtains the directories in which the {@code .proto} files are looked up,
+     * in the order of lookup.
+     */
+    private List<Path> protoPath() {
+        return getSourceDirs().plus(getIncludeDirs())
+                              .getFiles()
+                              .stream()
+                              .map(File::toPath)
+                              .collect(Collectors.toList());
+    }
+
+    /**
+     * Obtains the keys of the cache entries for the given {@code .proto} files.
+     */
+    private Map<String, HashCode> cacheKeys(ProtoSources sources, Set<String> files) {
+        var toolchain = Hashing.sha256().newHasher();
+        toolchain.putString(CACHE_VERSION, UTF_8);
+        toolchain.putBytes(contentHash(getProtoc().getSingleFile()));
+        toolchain.putBytes(contentHash(getPlugin().get().getAsFile()));
+        getPluginOptions().get()
+                          .forEach(option -> toolchain.putString(option, UTF_8)
+                                                      .putByte((byte) 0));
+        var toolchainHash = toolchain.hash();
+        Map<String, HashCode> result = new TreeMap<>();
+        for (var file : files) {
+            var key = Hashing.sha256()
+                             .newHasher()
+                             .putBytes(toolchainHash.asBytes())
+                             .putBytes(sources.digest(file).asBytes())
+                             .hash();
+            result.put(file, key);
+        }
+        return result;
+    }
+
+    /**
+     * Restores the files generated for the given {@code .proto} files from the cache.
+     *
+     * @return the {@code .proto} files found in the cache
+     */
+    private Set<String> restore(Map<String, HashCode> keys,
+                                OutputDirs outputDirs,
+                                TaskReport report) {
+        var cache = cache();
+        Set<String> result = new HashSet<>();
+        keys.forEach((file, key) -> {
+            var outputDir = outputDirs.forProto(file);
+            if (cache.restore(key, outputDir)) {
+                result.add(file);
+                generatedFiles(outputDir, file).forEach(restored -> count(restored, report));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Counts the given file as written by the task.
+     */
+    private static void count(Path written, TaskReport report) {
+        try {
+            report.increment(FILES_REWRITTEN);
+            report.add(BYTES_WRITTEN, Files.size(written));
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Stores the files generated for the given {@code .proto} files in the cache and evicts
+     * the least recently used entries if the cache exceeds its size.
+     */
+    private void store(Map<String, HashCode> keys, Set<String> generated, OutputDirs outputDirs) {
+        var cache = cache();
+        for (var file : generated) {
+            var outputDir = outputDirs.forProto(file);
+            var files = generatedFiles(outputDir, file)
+                    .stream()
+                    .map(path -> outputDir.relativize(path).toString())
+                    .collect(Collectors.toList());
+            cache.store(keys.get(file), outputDir, files);
+        }
+        cache.evict();
+    }
+
+    private DartOutputCache cache() {
+        var dir = getCacheDir().get().getAsFile().toPath();
+        return new DartOutputCache(dir, getCacheSize().get());
+    }
+
+    private static byte[] contentHash(File file) {
+        try {
+            return Hashing.sha256()
+                          .hashBytes(Files.readAllBytes(file.toPath()))
+                          .asBytes();
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Obtains the {@code .proto} files to compile in an incremental run.
+     *
+     * <p>Those are the added and modified files along with the files which import changed,
+     * removed, or included files, directly or transitively. The outputs of the removed files
+     * are deleted, and the files are removed from the graph.
+     *
+     * @param changes
+     *         the changes of the inputs since the previous run
+     * @param graph
+     *         the import graph of the previous run
+     * @param sources
+     *         all the {@code .proto} files to compile
+     * @param outputDirs
+     *         the output directories of the {@code .proto} files
+     */
+    private ImmutableSet<String> affectedFiles(InputChanges changes,
+                                               ProtoImportGraph graph,
+                                               Set<String> sources,
+                                               OutputDirs outputDirs) {
+        Set<String> changed = new HashSet<>();
+        for (var change : changes.getFileChanges(protoFiles)) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+            var path = change.getNormalizedPath();
+            changed.add(path);
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                // The source set of a removed file is unknown. Its path is unique though.
+                outputDirs.all()
+                          .forEach(dir -> deleteGenerated(dir, path));
+                graph.remove(path);
+            }
+        }
+        for (var change : changes.getFileChanges(getIncludeDirs())) {
+            if (change.getFileType() != FileType.DIRECTORY) {
+                changed.add(change.getNormalizedPath());
+            }
+        }
+        return graph.withDependents(changed)
+                    .stream()
+                    .filter(sources::contains)
+                    .collect(toImmutableSet());
+    }
+
+    /**
+     * Deletes the Dart files generated for the given {@code .proto} file.
+     */
+    static void deleteGenerated(Path outputDir, String protoFile) {
+        try {
+            for (var file : generatedFiles(outputDir, protoFile)) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Obtains the Dart files generated for the given {@code .proto} file.
+     */
+    static List<Path> generatedFiles(Path outputDir, String protoFile) {
+        return GeneratedDartFiles.generatedFor(protoFile)
+                                 .stream()
+                                 .map(outputDir::resolve)
+                                 .filter(Files::exists)
+                                 .sorted()
+                                 .collect(Collectors.toList());
+    }
+
+    private static FileDescriptorSet readDescriptors(Path shardDir) {
+        var file = Path.of(shardDir + DESCRIPTORS_FILE);
+        try {
+            return FileDescriptorSet.parseFrom(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Obtains the sizes of the {@code .proto} files to compile keyed by their paths
+     * relative to the source directories.
+     *
+     * @throws IllegalStateException
+     *         if other source sets are compiled by this task, and several files have
+     *         the same path
+     */
+    private Map<String, Long> protoFileSizes() {
+        Map<String, Long> result = new TreeMap<>();
+        visitProtoFiles(getSourceDirs(), (path, size) -> {
+            var previous = result.put(path, size);
+            if (previous != null && !batchedSourceSets.isEmpty()) {
+                throw new IllegalStateException(format(
+                        "The file `%s` is found in several source sets compiled by `%s`. " +
+                                "Disable the batching of source sets.", path, getPath()
+                ));
+            }
+        });
+        return result;
+    }
+
+    private static void visitProtoFiles(FileCollection dirs, BiConsumer<String, Long> action) {
+        dirs.getAsFileTree()
+            .matching(files -> files.include(PROTO_FILES))
+            .visit(details -> {
+                if (!details.isDirectory()) {
+                    action.accept(details.getPath(), details.getSize());
+                }
+            });
+    }
+
+    /**
+     * Runs {@code protoc} for each of the given shards in parallel.
+     *
+     * @param shards
+     *         the files to compile split into shards
+     * @param writeDescriptors
+     *         if {@code true}, the descriptors of each shard are written into a file next to
+     *         the directory of the shard
+     * @return the directories into which the shards are generated, in the order of the shards
+     */
+    private List<Path> generate(List<? extends List<String>> shards, boolean writeDescriptors) {
+        var tempDir = getTemporaryDir().toPath();
+        getFileSystemOperations().delete(spec -> spec.delete(tempDir));
+        var protoc = getProtoc().getSingleFile();
+        if (!protoc.canExecute() && !protoc.setExecutable(true)) {
+            log.atWarning().log("Cannot make `%s` executable.", protoc);
+        }
+        var queue = getWorkerExecutor().noIsolation();
+        List<Path> result = new ArrayList<>(shards.size());
+        for (var i = 0; i < shards.size(); i++) {
+            var shard = shards.get(i);
+            var shardDir = tempDir.resolve(format(SHARD_DIR, i));
+            result.add(shardDir);
+            queue.submit(GenerateDartWork.class, params -> {
+                params.getProtoc().set(protoc);
+                params.getPlugin().set(getPlugin());
+                params.getPluginOptions().set(getPluginOptions());
+                params.getProtoPath().from(getSourceDirs(), getIncludeDirs());
+                params.getOutputDir().set(shardDir.toFile());
+                params.getFiles().set(shard);
+                if (writeDescriptors) {
+                    params.getDescriptorSetOut().set(new File(shardDir + DESCRIPTORS_FILE));
+                }
+            });
+        }
+        queue.await();
+        return result;
+    }
+
+    /**
+     * Moves the files generated for the shards into the output directories.
+     *
+     * <p>The shards are merged in the given order, and the files of each shard are moved in
+     * the order of their paths.
+     *
+     * @throws IllegalStateException
+     *         if several shards produce the same file
+     */
+    private static void merge(List<Path> shardDirs, OutputDirs outputDirs, TaskReport report) {
+        try {
+            for (var outputDir : outputDirs.all()) {
+                Files.createDirectories(outputDir);
+            }
+            for (var shardDir : shardDirs) {
+                if (!Files.isDirectory(shardDir)) {
+                    continue;
+                }
+                for (var file : sortedFiles(shardDir)) {
+                    var path = shardDir.relativize(file)
+                                       .toString()
+                                       .replace(File.separatorChar, '/');
+                    var target = outputDirs.forGenerated(path)
+                                           .resolve(path);
+                    if (Files.exists(target)) {
+                        throw new IllegalStateException(format(
+                                "The file `%s` is generated by several shards.", target
+                        ));
+                    }
+                    Files.createDirectories(target.getParent());
+                    Files.move(file, target);
+                    count(target, report);
+                }
+            }
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static List<Path> sortedFiles(Path dir) throws IOException {
+        try (var files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.gradle.GenerateProtoTask;
+import io.spine.tools.code.SourceSetName;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.file.Directory;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.specs.Spec;
+
+import java.io.File;
+import java.util.Collection;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.tools.gradle.ProtocPluginName.dart;
+import static io.spine.tools.gradle.project.Projects.getSourceSetNames;
+import static io.spine.tools.mc.dart.gradle.McDartTaskName.generateDart;
+import static io.spine.tools.mc.dart.gradle.Projects.getMcDart;
+
+/**
+ * Creates {@link McDartTaskName#generateDart(SourceSetName) generateDart} tasks in a project.
+ *
+ * <p>The tasks run only if mc-dart {@linkplain McDartOptions#getRunProtoc() runs}
+ * {@code protoc} on its own. In this case, the Dart plugin is removed from
+ * the {@code generateProto} tasks, so that the Dart code is generated only once.
+ * A {@code generateProto} task left with no builtins and no plugins is skipped.
+ * The options of the removed plugin are passed to the {@code generateDart} task of the same
+ * source set.
+ *
+ * <p>If the source sets are {@linkplain McDartOptions#getBatchSourceSets() batched}, the task
+ * of the {@code main} source set compiles all the source sets of the project in a single
+ * {@code protoc} run, and the tasks of the other source sets do nothing.
+ *
+ * <p>The tasks are registered lazily. They are created and configured only if they are
+ * needed for the build.
+ *
+ * @see GenerateDart
+ */
+final class GenerateDartTask {
+
+    private static final String CACHE_DIR = "caches/mc-dart/dart-outputs";
+
+    private final Project project;
+    private final ProtobufSetup protobuf;
+
+    private GenerateDartTask(Project project) {
+        this.project = project;
+        this.protobuf = ProtobufSetup.of(project);
+    }
+
+    /**
+     * Creates {@link McDartTaskName#generateDart(SourceSetName) generateDart} tasks
+     * for all source sets in the given project.
+     *
+     * <p>The tasks are created once the Protobuf Gradle plugin is applied to the project.
+     */
+    static void createTasksIn(Project project) {
+        checkNotNull(project);
+        project.getPluginManager().withPlugin(ProtobufSetup.PLUGIN_ID, plugin -> {
+            var factory = new GenerateDartTask(project);
+            factory.createTasks();
+        });
+    }
+
+    private void createTasks() {
+        var options = getMcDart(project);
+        protobuf.configureTasks(task -> {
+            if (options.getGenerateProtoReports().get()) {
+                var report = TaskReport.defaultFile(project.getLayout(), task.getName());
+                GenerateProtoReport.attachTo(task, report.get().getAsFile());
+            }
+            if (options.getRunProtoc().get()) {
+                var plugin = task.getPlugins().findByName(dart.name());
+                if (plugin != null) {
+                    var pluginOptions = ImmutableList.copyOf(plugin.getOptions());
+                    task.getPlugins().remove(plugin);
+                    task.onlyIf(new GeneratesCode());
+                    passOptions(task, pluginOptions);
+                }
+            }
+        });
+        var sourceSetNames = getSourceSetNames(project);
+        sourceSetNames.forEach(ssn -> createTask(ssn, sourceSetNames));
+    }
+
+    /**
+     * Passes the options of the Dart plugin removed from the given {@code generateProto} task
+     * to the {@code generateDart} task of the same source set.
+     */
+    private void passOptions(GenerateProtoTask task, ImmutableList<String> pluginOptions) {
+        var ssn = new SourceSetName(task.getSourceSet().getName());
+        project.getTasks()
+               .named(generateDart(ssn).name(), GenerateDart.class,
+                      generator -> generator.getPluginOptions().addAll(pluginOptions));
+    }
+
+    private void createTask(SourceSetName ssn, Collection<SourceSetName> sourceSetNames) {
+        var taskName = generateDart(ssn);
+        var tasks = project.getTasks();
+        tasks.register(taskName.name(), GenerateDart.class, task -> {
+            var options = getMcDart(project);
+            task.onlyIf(new RunProtoc(options.getRunProtoc()));
+            var batch = options.getBatchSourceSets().get()
+                    && sourceSetNames.contains(SourceSetName.main);
+            task.getSourceDirs().from(protobuf.sourceDirs(ssn));
+            task.getIncludeDirs().from(protobuf.includeDirs(ssn));
+            task.getProtoc().from(protobuf.protocExecutable());
+            task.getPlugin().fileProvider(protobuf.pluginPath(dart.name()).map(File::new));
+            task.getShards().set(options.getProtocShards());
+            task.getIncremental().set(options.getIncrementalGeneration());
+            task.getCacheDir().set(outputCacheDir(options));
+            task.getCacheSize().set(options.getOutputCacheSize());
+            task.getOutputDir().set(CopyTask.sourceDir(project, ssn));
+            task.getSourceSetName().set(ssn.getValue());
+            dependOnExtraction(task, ssn);
+            if (batch) {
+                batchSourceSets(task, ssn, sourceSetNames);
+            }
+        });
+    }
+
+    /**
+     * Makes the task of the {@code main} source set compile all the other source sets.
+     *
+     * <p>The tasks of the other source sets are disabled and depend on the task of
+     * the {@code main} source set, which generates their code.
+     */
+    private void batchSourceSets(GenerateDart task,
+                                 SourceSetName ssn,
+                                 Collection<SourceSetName> sourceSetNames) {
+        if (!ssn.equals(SourceSetName.main)) {
+            task.setEnabled(false);
+            task.dependsOn(generateDart(SourceSetName.main).name());
+            return;
+        }
+        sourceSetNames.stream()
+                      .filter(other -> !other.equals(ssn))
+                      .forEach(other -> {
+                          task.batch(other.getValue(), sourceSet -> {
+                              sourceSet.getSourceDirs().from(protobuf.sourceDirs(other));
+                              sourceSet.getIncludeDirs().from(protobuf.includeDirs(other));
+                              sourceSet.getOutputDir().set(CopyTask.sourceDir(project, other));
+                          });
+                          dependOnExtraction(task, other);
+                      });
+    }
+
+    /**
+     * Makes the task depend on the tasks extracting the {@code .proto} files it compiles
+     * and imports for the given source set.
+     *
+     * <p>The task does not depend on {@code generateProto}. So, the Dart code is generated
+     * alongside the code generated by the other {@code protoc} plugins and builtins.
+     */
+    private static void dependOnExtraction(GenerateDart task, SourceSetName ssn) {
+        task.dependsOn(extractProto(ssn), extractIncludeProto(ssn));
+        if (!ssn.equals(SourceSetName.main)) {
+            task.dependsOn(extractProto(SourceSetName.main));
+        }
+    }
+
+    /**
+     * Obtains the name of the task of the Protobuf Gradle plugin which extracts
+     * the {@code .proto} files of the dependencies of the given source set.
+     */
+    private static String extractProto(SourceSetName ssn) {
+        return "extract" + ssn.toInfix() + "Proto";
+    }
+
+    /**
+     * Obtains the name of the task of the Protobuf Gradle plugin which extracts
+     * the {@code .proto} files imported by the given source set.
+     */
+    private static String extractIncludeProto(SourceSetName ssn) {
+        return "extractInclude" + ssn.toInfix() + "Proto";
+    }
+
+    /**
+     * Obtains the directory of the cache of the generated Dart files, if the cache is enabled.
+     */
+    private Provider<Directory> outputCacheDir(McDartOptions options) {
+        var dir = project.getGradle()
+                         .getGradleUserHomeDir()
+                         .toPath()
+                         .resolve(CACHE_DIR)
+                         .toFile();
+        return options.getOutputCache()
+                      .flatMap(enabled -> enabled
+                                          ? project.getLayout()
+                                                   .dir(project.provider(() -> dir))
+                                          : project.getObjects()
+                                                   .directoryProperty());
+    }
+
+    /**
+     * Allows the task to run only if mc-dart runs {@code protoc} on its own.
+     */
+    private static final class RunProtoc implements Spec<Task> {
+
+        private final Provider<Boolean> runProtoc;
+
+        private RunProtoc(Provider<Boolean> runProtoc) {
+            this.runProtoc = runProtoc;
+        }
+
+        @Override
+        public boolean isSatisfiedBy(Task task) {
+            return runProtoc.get();
+        }
+    }
+
+    /**
+     * Allows a {@code generateProto} task to run only if it has anything to generate.
+     *
+     * <p>The builtins and the plugins of the task are checked when the task is about to run.
+     * So, the ones added after the Dart plugin is removed are taken into account.
+     */
+    private static final class GeneratesCode implements Spec<Task> {
+
+        @Override
+        public boolean isSatisfiedBy(Task task) {
+            var generateProto = (GenerateProtoTask) task;
+            return !generateProto.getBuiltins().isEmpty()
+                    || !generateProto.getPlugins().isEmpty();
+        }
+    }
+}
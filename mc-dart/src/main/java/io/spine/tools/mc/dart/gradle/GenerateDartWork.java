@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.flogger.FluentLogger;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.process.ExecOperations;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A single {@code protoc} invocation of a {@link GenerateDart} task executed
+ * by the Gradle {@linkplain org.gradle.workers.WorkerExecutor workers}.
+ *
+ * <p>Generates the Dart code for the given shard of the {@code .proto} files.
+ *
+ * <p>The arguments are passed to {@code protoc} in a file, so that the command line does not
+ * exceed the limits of the platform for large shards.
+ */
+public abstract class GenerateDartWork implements WorkAction<GenerateDartWork.Parameters> {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final String PLUGIN_NAME = "protoc-gen-dart";
+    private static final String ARGUMENTS_FILE = ".args";
+
+    @Inject
+    protected abstract ExecOperations getExecOperations();
+
+    @Override
+    public void execute() {
+        var params = getParameters();
+        var outputDir = params.getOutputDir().getAsFile().get();
+        var argsFile = new File(outputDir.getPath() + ARGUMENTS_FILE);
+        var files = params.getFiles().get();
+        log.atFine().log("Generating Dart for %d files into `%s`.", files.size(), outputDir);
+        try {
+            Files.createDirectories(outputDir.toPath());
+            Files.write(argsFile.toPath(), arguments(outputDir), UTF_8);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+        var protoc = params.getProtoc().getAsFile().get();
+        getExecOperations().exec(spec -> {
+            spec.executable(protoc);
+            spec.args('@' + argsFile.getPath());
+        });
+    }
+
+    private Iterable<String> arguments(File outputDir) {
+        var params = getParameters();
+        var args = new ArrayList<String>();
+        args.add("--plugin=" + PLUGIN_NAME + '=' + params.getPlugin().getAsFile().get());
+        var options = String.join(",", params.getPluginOptions().get());
+        var prefix = options.isEmpty() ? "" : options + ':';
+        args.add("--dart_out=" + prefix + outputDir);
+        if (params.getDescriptorSetOut().isPresent()) {
+            var descriptors = params.getDescriptorSetOut().getAsFile().get();
+            args.add("--descriptor_set_out=" + descriptors);
+            args.add("--include_imports");
+        }
+        for (var dir : params.getProtoPath()) {
+            if (dir.exists()) {
+                args.add("--proto_path=" + dir);
+            }
+        }
+        args.addAll(params.getFiles().get());
+        return args;
+    }
+
+    /**
+     * Parameters of the {@link GenerateDartWork}.
+     */
+    public interface Parameters extends WorkParameters {
+
+        /**
+         * The {@code protoc} executable.
+         */
+        RegularFileProperty getProtoc();
+
+        /**
+         * The {@code protoc} plugin for Dart.
+         */
+        RegularFileProperty getPlugin();
+
+        /**
+         * The options passed to the plugin.
+         */
+        ListProperty<String> getPluginOptions();
+
+        /**
+         * The directories in which {@code protoc} looks for the {@code .proto} files and
+         * their imports, in the order of lookup.
+         */
+        ConfigurableFileCollection getProtoPath();
+
+        /**
+         * The directory into which the Dart code is generated.
+         */
+        DirectoryProperty getOutputDir();
+
+        /**
+         * Paths of the {@code .proto} files to compile, relative to
+         * the {@linkplain #getProtoPath() proto path}.
+         */
+        ListProperty<String> getFiles();
+
+        /**
+         * The file into which the descriptors of the compiled {@code .proto} files and all
+         * their imports are written.
+         *
+         * <p>If not set, the descriptors are not written.
+         */
+        RegularFileProperty getDescriptorSetOut();
+    }
+}
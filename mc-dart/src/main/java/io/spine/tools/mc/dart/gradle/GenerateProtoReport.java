@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.protobuf.gradle.GenerateProtoTask;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.gradle.api.Action;
+import org.gradle.api.Task;
+
+import java.io.File;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Writes the {@linkplain TaskReport performance report} of a {@code generateProto} task.
+ *
+ * <p>The Protobuf Gradle plugin runs {@code protoc} with all the plugins in a single process.
+ * So, only the wall time of the whole task is reported. The counters of the report stay zero.
+ */
+final class GenerateProtoReport {
+
+    private final File file;
+    private final String sourceSet;
+    private @MonotonicNonNull TaskReport report;
+
+    private GenerateProtoReport(File file, String sourceSet) {
+        this.file = file;
+        this.sourceSet = sourceSet;
+    }
+
+    /**
+     * Makes the given task write its report into the given file.
+     */
+    static void attachTo(GenerateProtoTask task, File file) {
+        checkNotNull(task);
+        checkNotNull(file);
+        var sourceSet = task.getSourceSet().getName();
+        var report = new GenerateProtoReport(file, sourceSet);
+        task.doFirst(report.new Start());
+        task.doLast(report.new Finish());
+    }
+
+    /**
+     * Starts measuring the time of the task.
+     */
+    private final class Start implements Action<Task> {
+
+        @Override
+        public void execute(Task task) {
+            report = new TaskReport();
+        }
+    }
+
+    /**
+     * Writes the report.
+     */
+    private final class Finish implements Action<Task> {
+
+        @Override
+        public void execute(Task task) {
+            checkState(report != null, "The report of `%s` is not started.", task.getPath());
+            report.write(file.toPath(), task, GenerateProtoTask.class, sourceSet, false);
+        }
+    }
+}
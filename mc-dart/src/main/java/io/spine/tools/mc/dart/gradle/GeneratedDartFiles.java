@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+/**
+ * The naming convention of the Dart files generated by the {@code protoc} plugin for Dart.
+ *
+ * <p>The file {@code foo/bar.proto} produces {@code foo/bar.pb.dart},
+ * {@code foo/bar.pbenum.dart}, {@code foo/bar.pbjson.dart}, and, if it declares services,
+ * {@code foo/bar.pbserver.dart}. With the {@code grpc} option of the plugin, the services
+ * go to {@code foo/bar.pbgrpc.dart} instead. Only these exact suffixes are matched. So, the file
+ * {@code foo/bar.pbx.pb.dart} belongs to {@code foo/bar.pbx.proto} and not to
+ * {@code foo/bar.proto}.
+ */
+final class GeneratedDartFiles {
+
+    private static final String PROTO_EXTENSION = ".proto";
+    private static final ImmutableList<String> SUFFIXES = ImmutableList.of(
+            ".pb.dart", ".pbenum.dart", ".pbjson.dart", ".pbserver.dart", ".pbgrpc.dart"
+    );
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private GeneratedDartFiles() {
+    }
+
+    /**
+     * Obtains the paths of the Dart files which may be generated for the given
+     * {@code .proto} file.
+     *
+     * <p>If the path does not end with {@code .proto}, the suffixes are appended to
+     * the whole path.
+     */
+    static ImmutableList<String> generatedFor(String protoFile) {
+        checkNotNull(protoFile);
+        var base = protoFile.endsWith(PROTO_EXTENSION)
+                   ? protoFile.substring(0, protoFile.length() - PROTO_EXTENSION.length())
+                   : protoFile;
+        return SUFFIXES.stream()
+                       .map(suffix -> base + suffix)
+                       .collect(toImmutableList());
+    }
+
+    /**
+     * Obtains the path of the {@code .proto} file for which the given Dart file is generated.
+     *
+     * <p>Returns an empty {@code Optional} if the name of the file does not follow
+     * the naming convention of the Dart plugin.
+     */
+    static Optional<String> protoFileOf(String generatedFile) {
+        checkNotNull(generatedFile);
+        var nameStart = generatedFile.lastIndexOf('/') + 1;
+        return SUFFIXES.stream()
+                       .filter(generatedFile::endsWith)
+                       .map(suffix -> generatedFile.length() - suffix.length())
+                       .filter(end -> end > nameStart)
+                       .map(end -> generatedFile.substring(0, end) + PROTO_EXTENSION)
+                       .findFirst();
+    }
+}
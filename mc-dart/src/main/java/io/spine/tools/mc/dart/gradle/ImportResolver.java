@@ -0,0 +1,216 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.flogger.FluentLogger;
+import io.spine.tools.mc.dart.gradle.McDartEvents.ReadFile;
+import io.spine.tools.mc.dart.gradle.McDartEvents.ResolveFile;
+import io.spine.tools.mc.dart.gradle.McDartEvents.WriteFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_READ;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_WRITTEN;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.FILES_REWRITTEN;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.FILES_SCANNED;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.IMPORTS_REWRITTEN;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes a Dart file generated from Protobuf to its target location resolving imports in it.
+ *
+ * <p>A relative import of a file from a directory {@linkplain ModuleIndex provided} by
+ * an external module is replaced with the {@code package:} import of the module. The path in
+ * the resulting import is the path of the imported file relative to the {@code lib} directory.
+ * E.g. if the module {@code server} provides {@code company/server/*}, the import
+ * {@code '../company/server/nested/file.pb.dart'} becomes
+ * {@code 'package:server/company/server/nested/file.pb.dart'}.
+ *
+ * <p>All other imports and the rest of the file stay as they are.
+ *
+ * <p>Like {@code DartFile.resolveImports(..)}, the resolver handles the import directives
+ * in the form {@code protoc-gen-dart} writes them, one directive per line. Except for
+ * the choice between overlapping directory patterns, which is defined by
+ * the {@link ModuleIndex}, the resolved imports are the same as those of {@code DartFile}.
+ *
+ * <p>The same instance is used for all the files processed by a task or by a work item
+ * of the task. The class is stateless, so the processing of the files does not depend on
+ * the order, or on the thread in which it happens. The work done is counted in
+ * a {@linkplain TaskReport report} passed along with each file.
+ */
+final class ImportResolver {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    /**
+     * Matches the URI of an import directive.
+     *
+     * <p>The groups are: the text preceding the URI, the URI, and the closing quote.
+     */
+    private static final Pattern IMPORT = Pattern.compile(
+            "^(\\s*import\\s+['\"])([^'\"]+)(['\"])", Pattern.MULTILINE
+    );
+    private static final String SCHEME_SEPARATOR = ":";
+    private static final String PACKAGE_SCHEME = "package:";
+
+    private final Path libPath;
+    private final ModuleIndex modules;
+    private final boolean writeOnlyIfChanged;
+    private final CopyStrategy copyStrategy;
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param libPath
+     *         the {@code lib} directory against which imports are resolved
+     * @param modules
+     *         the index of Dart modules and directories they provide
+     * @param writeOnlyIfChanged
+     *         if {@code true}, an existing target file is not overwritten when
+     *         its content would not change
+     * @param copyStrategy
+     *         the way the files with no imports to resolve are placed to the target location
+     */
+    ImportResolver(Path libPath,
+                   ModuleIndex modules,
+                   boolean writeOnlyIfChanged,
+                   CopyStrategy copyStrategy) {
+        this.libPath = checkNotNull(libPath).toAbsolutePath().normalize();
+        this.modules = checkNotNull(modules);
+        this.writeOnlyIfChanged = writeOnlyIfChanged;
+        this.copyStrategy = checkNotNull(copyStrategy);
+    }
+
+    /**
+     * Writes the given generated file to the target location resolving imports in it.
+     *
+     * <p>The generated file is read once. The resolved content is kept in memory.
+     *
+     * <p>If the resolver {@linkplain #writeOnlyIfChanged writes only changed files} and
+     * the target already exists with the same content, the target, including its
+     * modification time, stays untouched.
+     *
+     * <p>If no imports are changed, the generated file is placed to the target location
+     * according to the {@linkplain CopyStrategy copy strategy} of the resolver.
+     *
+     * @param generatedFile
+     *         the file generated by {@code protoc}
+     * @param target
+     *         the location to write the file to
+     * @param report
+     *         the report counting the work done
+     */
+    void resolve(Path generatedFile, Path target, TaskReport report) {
+        log.atFine().log("Resolving imports in the file `%s`.", target);
+        try {
+            var readEvent = new ReadFile();
+            readEvent.begin();
+            var bytes = Files.readAllBytes(generatedFile);
+            readEvent.record(generatedFile, bytes.length);
+            report.increment(FILES_SCANNED);
+            report.add(BYTES_READ, bytes.length);
+            var content = new String(bytes, UTF_8);
+            var resolved = resolve(content, target, report);
+            var writeEvent = new WriteFile();
+            writeEvent.begin();
+            if (copyStrategy == CopyStrategy.LINK && resolved.equals(content)) {
+                var linked = TargetFiles.copy(generatedFile, target,
+                                              writeOnlyIfChanged, copyStrategy);
+                if (linked) {
+                    report.increment(FILES_REWRITTEN);
+                }
+                writeEvent.record(target, bytes.length, linked);
+                return;
+            }
+            var resolvedBytes = resolved.getBytes(UTF_8);
+            var written = TargetFiles.write(target, resolvedBytes, writeOnlyIfChanged);
+            if (written) {
+                report.increment(FILES_REWRITTEN);
+                report.add(BYTES_WRITTEN, resolvedBytes.length);
+            }
+            writeEvent.record(target, resolvedBytes.length, written);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Resolves imports in the given content of the file located at the given path.
+     */
+    String resolve(CharSequence content, Path file) {
+        return resolve(content, file, new TaskReport());
+    }
+
+    private String resolve(CharSequence content, Path file, TaskReport report) {
+        var event = new ResolveFile();
+        event.begin();
+        var directory = file.toAbsolutePath()
+                            .normalize()
+                            .getParent();
+        var matcher = IMPORT.matcher(content);
+        var result = new StringBuilder(content.length());
+        var imports = 0;
+        var rewritten = 0;
+        while (matcher.find()) {
+            imports++;
+            var uri = matcher.group(2);
+            var resolved = resolveUri(uri, directory);
+            if (!resolved.equals(uri)) {
+                rewritten++;
+            }
+            var replacement = matcher.group(1) + resolved + matcher.group(3);
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        report.add(IMPORTS_REWRITTEN, rewritten);
+        event.record(file, content.length(), imports, rewritten);
+        return result.toString();
+    }
+
+    private String resolveUri(String uri, Path directory) {
+        if (uri.contains(SCHEME_SEPARATOR)) {
+            return uri;
+        }
+        var imported = directory.resolve(uri).normalize();
+        var relativePath = libPath.relativize(imported);
+        var importedDir = relativePath.getParent();
+        var dirName = importedDir == null ? "" : unixPath(importedDir);
+        return modules.moduleFor(dirName)
+                      .map(module -> PACKAGE_SCHEME + module + '/' + unixPath(relativePath))
+                      .orElse(uri);
+    }
+
+    private static String unixPath(Path path) {
+        return path.toString().replace('\\', '/');
+    }
+}
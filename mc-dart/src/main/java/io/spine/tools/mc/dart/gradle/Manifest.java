@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.flogger.FluentLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The list of files which a task has placed into a target directory.
+ *
+ * <p>The manifest is stored as a text file with one path per line. The paths are relative to
+ * the target directory and separated with {@code /}.
+ *
+ * <p>The manifest allows the task to remove the files it has produced earlier, if their
+ * sources are no longer generated, e.g. after a {@code .proto} file is renamed or deleted.
+ * Only the files listed in the manifest are ever removed. So, the hand-written code in
+ * the same directory is never touched.
+ */
+final class Manifest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private final Path file;
+
+    /**
+     * Creates the manifest stored in the given file.
+     *
+     * <p>The file does not have to exist.
+     */
+    Manifest(Path file) {
+        this.file = checkNotNull(file);
+    }
+
+    /**
+     * Obtains the paths recorded in this manifest.
+     *
+     * <p>Returns an empty set if nothing has been recorded yet.
+     */
+    ImmutableSet<String> read() {
+        if (!Files.exists(file)) {
+            return ImmutableSet.of();
+        }
+        try {
+            return Files.readAllLines(file, UTF_8)
+                        .stream()
+                        .filter(line -> !line.isEmpty())
+                        .collect(ImmutableSet.toImmutableSet());
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Replaces the content of this manifest with the given paths.
+     *
+     * <p>The manifest file is not rewritten if the paths stay the same.
+     */
+    void record(Collection<String> paths) {
+        var sorted = ImmutableSortedSet.copyOf(paths);
+        var content = new StringBuilder();
+        for (var path : sorted) {
+            content.append(path)
+                   .append('\n');
+        }
+        TargetFiles.write(file, content.toString().getBytes(UTF_8), true);
+    }
+
+    /**
+     * Deletes the recorded files whose sources no longer exist in the generated directory.
+     *
+     * <p>The directories which become empty after the deletion are deleted as well.
+     *
+     * @param generatedDir
+     *         the directory into which {@code protoc} puts the generated files
+     * @param targetDir
+     *         the directory into which the generated files were placed
+     */
+    void prune(Path generatedDir, Path targetDir) {
+        var root = targetDir.toAbsolutePath().normalize();
+        for (var path : read()) {
+            if (Files.exists(generatedDir.resolve(path))) {
+                continue;
+            }
+            var target = root.resolve(path).normalize();
+            if (!target.startsWith(root)) {
+                log.atWarning().log("Skipping `%s` outside of `%s`.", path, root);
+                continue;
+            }
+            log.atFine().log("Deleting the stale file `%s`.", target);
+            TargetFiles.delete(target);
+            deleteEmptyParents(target, root);
+        }
+    }
+
+    private static void deleteEmptyParents(Path file, Path root) {
+        var dir = file.getParent();
+        try {
+            while (dir != null && !dir.equals(root) && isEmptyDirectory(dir)) {
+                Files.delete(dir);
+                dir = dir.getParent();
+            }
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static boolean isEmptyDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return false;
+        }
+        try (var entries = Files.list(dir)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.nio.file.Path;
+
+/**
+ * Java Flight Recorder events of mc-dart.
+ *
+ * <p>The events attribute the time spent by the Gradle daemon to the stages of mc-dart and to
+ * the processed files. The events are disabled unless a recording enables them, e.g. with
+ * the {@code +io.spine.tools.mc.dart.*#enabled=true} setting. A disabled event costs
+ * an allocation, which the JIT compiler usually eliminates.
+ *
+ * <p>Each event is timed between a call to {@link Event#begin() begin()} and a call to its
+ * {@code record(..)} method. The fields of the event are filled only if the event is
+ * to be committed.
+ */
+final class McDartEvents {
+
+    private static final String CATEGORY = "mc-dart";
+    private static final String PREFIX = "io.spine.tools.mc.dart.";
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private McDartEvents() {
+    }
+
+    /**
+     * Application of the mc-dart plugin to a project.
+     */
+    @Name(PREFIX + "PluginApply")
+    @Label("Plugin Apply")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PluginApply extends Event {
+
+        @Label("Project")
+        String project;
+
+        void record(String project) {
+            end();
+            if (shouldCommit()) {
+                this.project = project;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Location of the {@code protoc} plugin for Dart.
+     */
+    @Name(PREFIX + "ProtocPluginLocation")
+    @Label("Protoc Plugin Location")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ProtocPluginLocation extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Cached")
+        @Description("Tells if the location is taken from the cache file.")
+        boolean cached;
+
+        void record(Path path, boolean cached) {
+            end();
+            if (shouldCommit()) {
+                this.path = path.toString();
+                this.cached = cached;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Copying of a batch of generated files into a target directory.
+     */
+    @Name(PREFIX + "CopyBatch")
+    @Label("Copy Batch")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class CopyBatch extends Event {
+
+        @Label("Task")
+        String task;
+
+        @Label("Files")
+        @Description("The number of files in the batch.")
+        int files;
+
+        @Label("Size")
+        @Description("The number of bytes written.")
+        @DataAmount
+        long size;
+
+        void record(String task, int files, long size) {
+            end();
+            if (shouldCommit()) {
+                this.task = task;
+                this.files = files;
+                this.size = size;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Reading of a generated Dart file.
+     */
+    @Name(PREFIX + "ReadFile")
+    @Label("Read Dart File")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ReadFile extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        void record(Path path, long size) {
+            end();
+            if (shouldCommit()) {
+                this.path = path.toString();
+                this.size = size;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Resolution of imports in a Dart file.
+     */
+    @Name(PREFIX + "ResolveFile")
+    @Label("Resolve Dart File")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ResolveFile extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Length")
+        @Description("The number of characters in the file.")
+        long length;
+
+        @Label("Imports")
+        @Description("The number of imports in the file.")
+        int imports;
+
+        @Label("Rewritten Imports")
+        @Description("The number of imports changed by the resolution.")
+        int rewritten;
+
+        void record(Path path, long length, int imports, int rewritten) {
+            end();
+            if (shouldCommit()) {
+                this.path = path.toString();
+                this.length = length;
+                this.imports = imports;
+                this.rewritten = rewritten;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Writing of a Dart file into a target directory.
+     */
+    @Name(PREFIX + "WriteFile")
+    @Label("Write Dart File")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class WriteFile extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        @Label("Written")
+        @Description("Tells if the file is written rather than left untouched as up-to-date.")
+        boolean written;
+
+        void record(Path path, long size, boolean written) {
+            end();
+            if (shouldCommit()) {
+                this.path = path.toString();
+                this.size = size;
+                this.written = written;
+                commit();
+            }
+        }
+    }
+}
@@ -26,12 +26,14 @@
 
 package io.spine.tools.mc.dart.gradle;
 
-import io.spine.tools.fs.ExternalModules;
+import com.google.common.collect.ImmutableList;
 import org.gradle.api.Project;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
 
 import javax.inject.Inject;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -45,20 +47,48 @@ public class McDartOptions {
     private static final String LIB_DIRECTORY = "lib";
     private static final String TEST_DIRECTORY = "test";
     private static final String GENERATED_BASE_DIR = "generated";
+    private static final int SERIAL = 1;
+    private static final long DEFAULT_OUTPUT_CACHE_SIZE = 512L * 1024 * 1024;
+    private static final ImmutableList<String> GENERATED_FILES = ImmutableList.of(
+            "**/*.pb.dart",
+            "**/*.pbenum.dart",
+            "**/*.pbserver.dart",
+            "**/*.pbjson.dart"
+    );
 
     private final DirectoryProperty libDir;
     private final DirectoryProperty testDir;
     private final DirectoryProperty generatedDir;
     private final DirectoryProperty generatedTestDir;
+    private final Property<Boolean> writeOnlyIfChanged;
+    private final Property<Boolean> fuseCopy;
+    private final Property<Boolean> sync;
+    private final Property<CopyStrategy> copyStrategy;
+    private final Property<Boolean> compileProtocPlugin;
+    private final Property<Boolean> runProtoc;
+    private final Property<Integer> protocShards;
+    private final Property<Boolean> incrementalGeneration;
+    private final Property<Boolean> batchSourceSets;
+    private final Property<Boolean> outputCache;
+    private final Property<Long> outputCacheSize;
+    private final Property<Integer> maxParallelism;
+    private final Property<Boolean> generateProtoReports;
+    private final ListProperty<String> includes;
+    private final ListProperty<String> excludes;
 
     /**
      * Names of Dart modules and directories they provide.
      *
      * <p>Information about modules is used to resolve imports in generated Protobuf files.
+     * If several directory patterns match an imported file, an exact pattern wins over
+     * recursive ones, and a longer recursive pattern wins over a shorter one. If the same
+     * pattern is declared for several modules, the module declared first wins. Thus,
+     * the modules are kept in the order of their declaration.
      *
-     * <p>Import resolution only applies to Dart files generated from Protobuf. Such files must
-     * have one of extensions: {@code .pb.dart}, {@code .pbenum.dart}, {@code .pbserver.dart}, or
-     * {@code .pbjson.dart}. All other files are ignored.
+     * <p>Import resolution only applies to Dart files generated from Protobuf. By default, such
+     * files must have one of extensions: {@code .pb.dart}, {@code .pbenum.dart},
+     * {@code .pbserver.dart}, or {@code .pbjson.dart}. All other files are ignored.
+     * See {@link #getIncludes()} and {@link #getExcludes()} for customizing this.
      *
      * <p>An example of the definition:
      * <pre>{@code
@@ -84,7 +114,7 @@ public class McDartOptions {
             "PublicField", "WeakerAccess" /* Expose fields as a Gradle extension */,
             "UnrecognisedJavadocTag" /* ... `{@code }` within the code block example above. */
     })
-    public final Map<String, List<String>> modules = new HashMap<>();
+    public final Map<String, List<String>> modules = new LinkedHashMap<>();
 
     private final Project project;
 
@@ -97,6 +127,21 @@ public class McDartOptions {
         this.testDir = objects.directoryProperty();
         this.generatedDir = objects.directoryProperty();
         this.generatedTestDir = objects.directoryProperty();
+        this.writeOnlyIfChanged = objects.property(Boolean.class);
+        this.fuseCopy = objects.property(Boolean.class);
+        this.sync = objects.property(Boolean.class);
+        this.copyStrategy = objects.property(CopyStrategy.class);
+        this.compileProtocPlugin = objects.property(Boolean.class);
+        this.runProtoc = objects.property(Boolean.class);
+        this.protocShards = objects.property(Integer.class);
+        this.incrementalGeneration = objects.property(Boolean.class);
+        this.batchSourceSets = objects.property(Boolean.class);
+        this.outputCache = objects.property(Boolean.class);
+        this.outputCacheSize = objects.property(Long.class);
+        this.maxParallelism = objects.property(Integer.class);
+        this.generateProtoReports = objects.property(Boolean.class);
+        this.includes = objects.listProperty(String.class);
+        this.excludes = objects.listProperty(String.class);
         initProperties();
     }
 
@@ -106,6 +151,21 @@ public class McDartOptions {
         testDir.convention(projectDir.dir(TEST_DIRECTORY));
         generatedDir.convention(projectDir.dir(GENERATED_BASE_DIR));
         generatedTestDir.convention(testDir);
+        writeOnlyIfChanged.convention(true);
+        fuseCopy.convention(false);
+        sync.convention(false);
+        copyStrategy.convention(CopyStrategy.COPY);
+        compileProtocPlugin.convention(false);
+        runProtoc.convention(false);
+        protocShards.convention(SERIAL);
+        incrementalGeneration.convention(false);
+        batchSourceSets.convention(false);
+        outputCache.convention(false);
+        outputCacheSize.convention(DEFAULT_OUTPUT_CACHE_SIZE);
+        maxParallelism.convention(SERIAL);
+        generateProtoReports.convention(false);
+        includes.convention(GENERATED_FILES);
+        excludes.convention(ImmutableList.of());
     }
 
     /**
@@ -147,7 +207,260 @@ public class McDartOptions {
         return generatedTestDir;
     }
 
-    ExternalModules modules() {
-        return new ExternalModules(modules);
+    /**
+     * Tells if the Dart files with the resolved imports are written only when their content
+     * differs from the files already present in the target directory.
+     *
+     * <p>The files which stay the same keep their modification time. Thus, the Dart analysis
+     * server and incremental compilers do not reprocess them.
+     *
+     * <p>The comparison takes effect in incremental runs of the tasks. Such a run processes only
+     * the generated files which changed, and the target of a changed file may stay the same,
+     * e.g. when a relative import is spelled differently, but resolves to the same
+     * {@code package:} import. When a task runs non-incrementally, Gradle deletes its previous
+     * outputs, so there is nothing to compare with.
+     *
+     * <p>Defaults to {@code true}.
+     */
+    public Property<Boolean> getWriteOnlyIfChanged() {
+        return writeOnlyIfChanged;
+    }
+
+    /**
+     * Tells if copying of the code generated by {@code protoc} is fused with
+     * the import resolution.
+     *
+     * <p>By default, the files subject to import resolution are read from the {@code protoc}
+     * output and written to the target directory by the {@code resolveImports} tasks, while
+     * the rest of the files are copied by the {@code copyGeneratedDart} tasks.
+     *
+     * <p>In the fused mode, the {@code copyGeneratedDart} tasks are skipped, and
+     * the {@code resolveImports} tasks place the whole {@code protoc} output into the target
+     * directory in a single incremental pass. Each generated file is read once and written
+     * at most once.
+     *
+     * <p>In both modes, the files are written directly from the {@code protoc} output to
+     * the target directory. No intermediate copy of the generated code is made. Combined with
+     * the {@link CopyStrategy#LINK LINK} {@linkplain #getCopyStrategy() copy strategy}, only
+     * the files in which imports are actually resolved are written.
+     *
+     * <p>Defaults to {@code false}.
+     */
+    public Property<Boolean> getFuseCopy() {
+        return fuseCopy;
+    }
+
+    /**
+     * Tells if the target directories are kept in sync with the code generated
+     * by {@code protoc}.
+     *
+     * <p>The {@code copyGeneratedDart} and {@code resolveImports} tasks record the files they
+     * place into the target directories. In the sync mode, the tasks delete the files they
+     * have placed earlier, if these files are no longer generated, e.g. after a {@code .proto}
+     * file is renamed or deleted. Other files in the target directories, such as
+     * the hand-written code, are never touched.
+     *
+     * <p>Defaults to {@code false}.
+     */
+    public Property<Boolean> getSync() {
+        return sync;
+    }
+
+    /**
+     * Defines how the generated Dart files are placed into the target directories.
+     *
+     * <p>With the {@link CopyStrategy#LINK LINK} strategy, the files are placed as hard links
+     * to the output of {@code protoc}, if the file system supports them, and copied otherwise.
+     * This applies to the files copied as-is and to the files in which no imports are
+     * resolved. A linked file is never modified in place, so the output of {@code protoc}
+     * stays intact.
+     *
+     * <p>Do not edit the generated files in the target directories manually when using links.
+     *
+     * <p>Defaults to {@link CopyStrategy#COPY COPY}.
+     */
+    public Property<CopyStrategy> getCopyStrategy() {
+        return copyStrategy;
+    }
+
+    /**
+     * Tells if the {@code protoc} plugin for Dart is compiled into a native executable.
+     *
+     * <p>The plugin installed with {@code dart pub global activate} starts a Dart VM for each
+     * {@code protoc} invocation. If this option is on, the plugin is compiled once with
+     * {@code dart compile exe}. The executable is stored under the Gradle user home,
+     * one per version of the plugin and of the Dart SDK, and is used by {@code protoc} instead
+     * of the script.
+     *
+     * <p>If the sources of the plugin or the Dart SDK cannot be found, the plugin is
+     * used as-is.
+     *
+     * <p>Defaults to {@code false}.
+     */
+    public Property<Boolean> getCompileProtocPlugin() {
+        return compileProtocPlugin;
+    }
+
+    /**
+     * Tells if mc-dart runs {@code protoc} with the Dart plugin on its own.
+     *
+     * <p>By default, the Dart plugin is added to the {@code generateProto} tasks of
+     * the Protobuf Gradle plugin. If this option is on, the plugin is removed from these tasks,
+     * and the Dart code is generated by the {@code generateDart} tasks instead. These tasks
+     * may {@linkplain #getProtocShards() split} the work between several {@code protoc}
+     * processes.
+     *
+     * <p>Only the Dart plugin is removed. The {@code generateProto} tasks still run
+     * {@code protoc} for the other builtins and plugins configured for them, e.g. the Java
+     * builtin enabled by default. To compile the {@code .proto} files only once, remove
+     * these builtins and plugins from the tasks. A task left with none of them is skipped.
+     *
+     * <p>Defaults to {@code false}.
+     */
+    public Property<Boolean> getRunProtoc() {
+        return runProtoc;
+    }
+
+    /**
+     * The maximum number of {@code protoc} processes generating the Dart code for
+     * a source set in parallel.
+     *
+     * <p>The {@code .proto} files are split into shards of about the same total size. Each
+     * shard is compiled by a separate {@code protoc} process run by the Gradle workers.
+     * The number of processes actually running at the same time is also limited by
+     * the {@code --max-workers} Gradle option.
+     *
+     * <p>Applies only if mc-dart {@linkplain #getRunProtoc() runs} {@code protoc} on its own.
+     *
+     * <p>Defaults to {@code 1}.
+     */
+    public Property<Integer> getProtocShards() {
+        return protocShards;
+    }
+
+    /**
+     * Tells whether only the Dart code affected by the changes in the {@code .proto} files is
+     * regenerated.
+     *
+     * <p>If enabled, mc-dart keeps the graph of imports between the {@code .proto} files of
+     * a source set. When some of the files change, {@code protoc} is run only for them and for
+     * the files which import them directly or transitively. The Dart code generated for
+     * the other files is kept from the previous build.
+     *
+     * <p>A change of the Dart plugin or its options leads to the regeneration of the whole
+     * source set.
+     *
+     * <p>Applies only if mc-dart {@linkplain #getRunProtoc() runs} {@code protoc} on its own.
+     *
+     * <p>Defaults to {@code false}.
+     */
+    public Property<Boolean> getIncrementalGeneration() {
+        return incrementalGeneration;
+    }
+
+    /**
+     * Tells whether the Dart code for all the source sets of the project is generated in
+     * a single {@code protoc} run.
+     *
+     * <p>If enabled, the {@code .proto} files of all the source sets are compiled by
+     * the {@code generateDart} task of the {@code main} source set. The generated files are
+     * then put into the directories of their source sets, as if each source set was compiled
+     * separately. This saves a start of {@code protoc} and the Dart plugin per source set.
+     *
+     * <p>The paths of the {@code .proto} files relative to their source directories must be
+     * unique across all the source sets. Otherwise, the build fails.
+     *
+     * <p>Applies only if mc-dart {@linkplain #getRunProtoc() runs} {@code protoc} on its own.
+     *
+     * <p>Defaults to {@code false}.
+     */
+    public Property<Boolean> getBatchSourceSets() {
+        return batchSourceSets;
+    }
+
+    /**
+     * Tells whether the Dart files generated from the {@code .proto} files are cached
+     * between builds.
+     *
+     * <p>The cache is stored under the Gradle user home and is shared by all the projects and
+     * builds on the machine. Each entry holds the Dart files generated for a single
+     * {@code .proto} file. The entry is keyed by the content of the file and all the files it
+     * imports transitively, by the {@code protoc} executable, the Dart plugin, and its options.
+     * The files found in the cache are restored without running {@code protoc}.
+     *
+     * <p>Applies only if mc-dart {@linkplain #getRunProtoc() runs} {@code protoc} on its own.
+     *
+     * <p>Defaults to {@code false}.
+     *
+     * @see #getOutputCacheSize()
+     */
+    public Property<Boolean> getOutputCache() {
+        return outputCache;
+    }
+
+    /**
+     * The maximum total size of the files in the {@linkplain #getOutputCache() cache} of
+     * the generated Dart files, in bytes.
+     *
+     * <p>Once the cache exceeds the size, the least recently used entries are evicted.
+     *
+     * <p>Defaults to 512 MiB.
+     */
+    public Property<Long> getOutputCacheSize() {
+        return outputCacheSize;
+    }
+
+    /**
+     * The maximum number of parallel work items resolving imports in the files
+     * of a source set.
+     *
+     * <p>If the value is greater than one, the generated files are split into batches which are
+     * processed by the Gradle workers. The number of workers actually running at the same
+     * time is also limited by the {@code --max-workers} Gradle option.
+     *
+     * <p>Defaults to {@code 1}, which means the files are processed serially.
+     */
+    public Property<Integer> getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    /**
+     * Tells whether the {@linkplain TaskReport performance reports} are also written for
+     * the {@code generateProto} tasks of the Protobuf Gradle plugin.
+     *
+     * <p>The reports of the tasks of mc-dart are always written. The {@code generateProto}
+     * tasks belong to another plugin, so mc-dart adds actions to them only if this option is
+     * on. Their reports contain only the wall time of the whole task.
+     *
+     * <p>Defaults to {@code false}.
+     */
+    public Property<Boolean> getGenerateProtoReports() {
+        return generateProtoReports;
+    }
+
+    /**
+     * Ant-style patterns of the generated Dart files which are subject to import resolution.
+     *
+     * <p>The patterns are relative to the directory into which {@code protoc} puts the generated
+     * files. They are matched while walking the directory, so the files not matching
+     * the patterns are never read.
+     *
+     * <p>Defaults to {@code **&#47;*.pb.dart}, {@code **&#47;*.pbenum.dart},
+     * {@code **&#47;*.pbserver.dart}, and {@code **&#47;*.pbjson.dart}.
+     */
+    public ListProperty<String> getIncludes() {
+        return includes;
+    }
+
+    /**
+     * Ant-style patterns of the generated Dart files which are excluded from import resolution
+     * even if they match the {@linkplain #getIncludes() includes}.
+     *
+     * <p>Excluded files are copied to the target directory as-is.
+     *
+     * <p>Empty by default.
+     */
+    public ListProperty<String> getExcludes() {
+        return excludes;
     }
 }
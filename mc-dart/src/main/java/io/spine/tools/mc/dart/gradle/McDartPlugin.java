@@ -27,6 +27,7 @@
 package io.spine.tools.mc.dart.gradle;
 
 import io.spine.logging.Logging;
+import io.spine.tools.mc.dart.gradle.McDartEvents.PluginApply;
 import io.spine.tools.mc.gradle.LanguagePlugin;
 import org.gradle.api.Project;
 
@@ -48,9 +49,13 @@ public final class McDartPlugin extends LanguagePlugin implements Logging {
 
     @Override
     public void apply(Project project) {
+        var event = new PluginApply();
+        event.begin();
         super.apply(project);
         ProtocConfig.applyTo(project);
+        GenerateDartTask.createTasksIn(project);
         CopyTask.createTasksIn(project);
         ResolveImportsTask.createTasksIn(project);
+        event.record(project.getPath());
     }
 }
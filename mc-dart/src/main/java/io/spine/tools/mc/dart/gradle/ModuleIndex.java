@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.base.Splitter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An index of the directories provided by external Dart modules.
+ *
+ * <p>The index is compiled from the {@linkplain McDartOptions#modules modules} map into a tree
+ * of path segments. Looking up the module of a directory takes time proportional to the depth
+ * of the directory, regardless of the number of the modules.
+ *
+ * <p>A directory pattern may be either exact, e.g. {@code company/client}, or recursive,
+ * e.g. {@code company/server/*}. An exact pattern matches only the directory itself.
+ * A recursive pattern matches the directory and all its subdirectories.
+ *
+ * <p>If several patterns match a directory, the module is chosen as follows:
+ * <ol>
+ *     <li>an exact pattern wins over recursive ones;
+ *     <li>a longer recursive pattern wins over a shorter one;
+ *     <li>if the same pattern is declared for several modules, the module which comes
+ *         first in the map wins.
+ * </ol>
+ *
+ * <p>The index is immutable and may be shared between threads.
+ */
+final class ModuleIndex {
+
+    private static final String RECURSIVE_SUFFIX = "/*";
+    private static final String ANY_DIRECTORY = "*";
+    private static final Splitter segments = Splitter.on('/').omitEmptyStrings();
+
+    private final Node root = new Node();
+
+    private ModuleIndex() {
+    }
+
+    /**
+     * Compiles the index of the given modules.
+     *
+     * @param modules
+     *         names of Dart modules and directory patterns they provide
+     */
+    static ModuleIndex of(Map<String, List<String>> modules) {
+        checkNotNull(modules);
+        var index = new ModuleIndex();
+        modules.forEach((module, patterns) ->
+                                patterns.forEach(pattern -> index.add(module, pattern)));
+        return index;
+    }
+
+    private void add(String module, String pattern) {
+        var path = pattern.trim().replace('\\', '/');
+        var recursive = path.endsWith(RECURSIVE_SUFFIX) || path.equals(ANY_DIRECTORY);
+        if (recursive) {
+            path = path.substring(0, path.length() - ANY_DIRECTORY.length());
+        }
+        var node = root;
+        for (var segment : segments.split(path)) {
+            node = node.child(segment);
+        }
+        if (recursive) {
+            if (node.recursive == null) {
+                node.recursive = module;
+            }
+        } else if (node.exact == null) {
+            node.exact = module;
+        }
+    }
+
+    /**
+     * Finds the module which provides the given directory.
+     *
+     * @param directory
+     *         the path of the directory relative to the {@code lib} directory,
+     *         separated with {@code /}
+     * @return the name of the module or {@code Optional.empty()} if the directory
+     *         is not provided by any module
+     */
+    Optional<String> moduleFor(String directory) {
+        checkNotNull(directory);
+        var node = root;
+        var module = node.recursive;
+        for (var segment : segments.split(directory)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return Optional.ofNullable(module);
+            }
+            if (node.recursive != null) {
+                module = node.recursive;
+            }
+        }
+        if (node.exact != null) {
+            module = node.exact;
+        }
+        return Optional.ofNullable(module);
+    }
+
+    /**
+     * A node of the index corresponding to a directory.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * The module which provides the directory exactly.
+         */
+        private @Nullable String exact;
+
+        /**
+         * The module which provides the directory with all its subdirectories.
+         */
+        private @Nullable String recursive;
+
+        private Node child(String segment) {
+            return children.computeIfAbsent(segment, s -> new Node());
+        }
+    }
+}
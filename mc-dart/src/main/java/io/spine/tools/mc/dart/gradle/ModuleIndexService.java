@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compiles the {@linkplain ModuleIndex indexes} of Dart modules once per build.
+ *
+ * <p>Projects often declare the same {@linkplain McDartOptions#modules modules}, e.g. through
+ * a convention plugin. The service compiles each distinct map of modules once and shares
+ * the index with all the tasks of the build which need it.
+ *
+ * <p>The maps are told apart by the hash of their content. The order of the entries is
+ * a part of the content, since it affects the {@linkplain ModuleIndex lookup}.
+ *
+ * <p>The service may be used by the tasks of several projects executed in parallel.
+ * The indexes are immutable and are compiled at most once per map.
+ */
+public abstract class ModuleIndexService implements BuildService<BuildServiceParameters.None> {
+
+    private static final String NAME = "mcDartModuleIndex";
+    private static final byte SEPARATOR = 0;
+    private static final byte MODULE_END = 1;
+
+    private final ConcurrentMap<HashCode, ModuleIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the service shared by the build of the given project, if it is not yet
+     * registered.
+     */
+    static Provider<ModuleIndexService> register(Project project) {
+        checkNotNull(project);
+        return project.getGradle()
+                      .getSharedServices()
+                      .registerIfAbsent(NAME, ModuleIndexService.class, spec -> {});
+    }
+
+    /**
+     * Obtains the index of the given modules.
+     *
+     * @param modules
+     *         names of Dart modules and directory patterns they provide
+     */
+    ModuleIndex index(Map<String, List<String>> modules) {
+        checkNotNull(modules);
+        return indexes.computeIfAbsent(hash(modules), key -> ModuleIndex.of(modules));
+    }
+
+    private static HashCode hash(Map<String, List<String>> modules) {
+        var hasher = Hashing.sha256().newHasher();
+        modules.forEach((module, patterns) -> {
+            hasher.putString(module, UTF_8)
+                  .putByte(SEPARATOR);
+            patterns.forEach(pattern -> hasher.putString(pattern, UTF_8)
+                                              .putByte(SEPARATOR));
+            hasher.putByte(MODULE_END);
+        });
+        return hasher.hash();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.base.Splitter;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.hash.Hashing;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The {@code protoc} plugin for Dart compiled ahead-of-time into a native executable.
+ *
+ * <p>The source of the executable is the Dart entry point of the located plugin:
+ * <ul>
+ *     <li>if the plugin is a {@code .dart} file, it is the entry point itself;
+ *     <li>if the plugin is a script created by {@code dart pub global activate}, the entry
+ *         point is the script of the activated package in the pub cache.
+ * </ul>
+ *
+ * <p>The executables are stored in a cache directory, one per version of the plugin.
+ * The version of an activated package is the one written by {@code pub} into the script.
+ * The version of a {@code .dart} file is the hash of its content.
+ *
+ * <p>Within the directory of a version, the executable is stored under the version of the Dart
+ * SDK which compiles it and the hash of the entry point and the package configuration. Thus,
+ * an upgrade of the SDK or a change of the plugin sources leads to a new executable, rather than
+ * to the reuse of a stale one.
+ */
+final class NativeProtocPlugin {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    /**
+     * Matches the properties of the activated package in the comments of a pub script.
+     *
+     * <p>The comments start with {@code #} in shell scripts and with {@code rem} in
+     * Windows batch files.
+     */
+    private static final Pattern SCRIPT_PROPERTY = Pattern.compile(
+            "^(?:#|rem)\\s+(Package|Version|Script):\\s*(\\S+)\\s*$", Pattern.MULTILINE
+    );
+    private static final String DART_EXTENSION = ".dart";
+    private static final String EXECUTABLE_NAME = "protoc-gen-dart";
+    private static final String WINDOWS_EXTENSION = ".exe";
+    private static final String[] PUB_HOSTS = {"pub.dev", "pub.dartlang.org"};
+    private static final int HASH_LENGTH = 16;
+    private static final String SDK_VERSION_FILE = "version";
+    private static final Pattern UNSAFE_PATH_CHARS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    private final Path entryPoint;
+    private final @Nullable Path packageConfig;
+    private final String version;
+    private final Path executable;
+
+    private NativeProtocPlugin(Path entryPoint,
+                               @Nullable Path packageConfig,
+                               String version,
+                               String sdkVersion,
+                               Path cacheDir) {
+        this.entryPoint = entryPoint;
+        this.packageConfig = packageConfig;
+        this.version = version;
+        var name = isWindows() ? EXECUTABLE_NAME + WINDOWS_EXTENSION : EXECUTABLE_NAME;
+        var build = "dart-" + UNSAFE_PATH_CHARS.matcher(sdkVersion).replaceAll("_")
+                + '-' + sourcesHash(entryPoint, packageConfig);
+        this.executable = cacheDir.resolve(version)
+                                  .resolve(build)
+                                  .resolve(name);
+    }
+
+    /**
+     * Obtains the version of the Dart SDK in which the {@code dart} command found
+     * in {@code PATH} resides.
+     *
+     * <p>The version is read from the {@code version} file of the SDK. If there is no such file,
+     * the version is described by the location, the size, and the modification time of
+     * the {@code dart} executable.
+     *
+     * @return the version or {@code Optional.empty()} if there is no {@code dart} in {@code PATH}
+     */
+    static Optional<String> sdkVersion() {
+        var path = Optional.ofNullable(System.getenv("PATH")).orElse("");
+        var command = isWindows() ? "dart" + WINDOWS_EXTENSION : "dart";
+        for (var dir : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().split(path)) {
+            var dart = Path.of(dir, command);
+            if (Files.isExecutable(dart)) {
+                return sdkVersion(dart);
+            }
+        }
+        log.atFine().log("The `dart` command is not found in `PATH`.");
+        return Optional.empty();
+    }
+
+    private static Optional<String> sdkVersion(Path dart) {
+        try {
+            var executable = dart.toRealPath();
+            var sdk = executable.getParent().getParent();
+            var versionFile = sdk == null ? null : sdk.resolve(SDK_VERSION_FILE);
+            if (versionFile != null && Files.isRegularFile(versionFile)) {
+                return Optional.of(Files.readString(versionFile, UTF_8).trim());
+            }
+            var description = executable + ":" + Files.size(executable) + ':'
+                    + Files.getLastModifiedTime(executable).toMillis();
+            return Optional.of(Hashing.sha256()
+                                      .hashString(description, UTF_8)
+                                      .toString()
+                                      .substring(0, HASH_LENGTH));
+        } catch (IOException e) {
+            log.atFine().withCause(e).log("Cannot determine the version of `%s`.", dart);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Obtains the native executable compiled from the given plugin.
+     *
+     * @param plugin
+     *         the located {@code protoc} plugin
+     * @param cacheDir
+     *         the directory in which the compiled executables are stored
+     * @param sdkVersion
+     *         the {@linkplain #sdkVersion() version} of the Dart SDK compiling the executable
+     * @return the native plugin or {@code Optional.empty()} if the entry point of the given
+     *         plugin cannot be determined
+     */
+    static Optional<NativeProtocPlugin> of(Path plugin, Path cacheDir, String sdkVersion) {
+        checkNotNull(plugin);
+        checkNotNull(cacheDir);
+        checkNotNull(sdkVersion);
+        if (plugin.getFileName().toString().endsWith(DART_EXTENSION)) {
+            var version = contentHash(plugin);
+            var nativePlugin = new NativeProtocPlugin(plugin, null, version, sdkVersion, cacheDir);
+            return Optional.of(nativePlugin);
+        }
+        return fromPubScript(plugin, cacheDir, sdkVersion);
+    }
+
+    private static Optional<NativeProtocPlugin> fromPubScript(Path script,
+                                                              Path cacheDir,
+                                                              String sdkVersion) {
+        var properties = scriptProperties(script);
+        var pkg = properties.get("Package");
+        var version = properties.get("Version");
+        var scriptName = properties.get("Script");
+        if (pkg == null || version == null || scriptName == null) {
+            log.atFine().log("`%s` is not a pub script.", script);
+            return Optional.empty();
+        }
+        var pubCache = script.toAbsolutePath().getParent().getParent();
+        var packageConfig = pubCache.resolve("global_packages")
+                                    .resolve(pkg)
+                                    .resolve(".dart_tool")
+                                    .resolve("package_config.json");
+        for (var host : PUB_HOSTS) {
+            var entryPoint = pubCache.resolve("hosted")
+                                     .resolve(host)
+                                     .resolve(pkg + '-' + version)
+                                     .resolve("bin")
+                                     .resolve(scriptName + DART_EXTENSION);
+            if (Files.exists(entryPoint) && Files.exists(packageConfig)) {
+                var plugin = new NativeProtocPlugin(
+                        entryPoint, packageConfig, pkg + '-' + version, sdkVersion, cacheDir
+                );
+                return Optional.of(plugin);
+            }
+        }
+        log.atFine().log("Cannot find the sources of `%s` %s in `%s`.", pkg, version, pubCache);
+        return Optional.empty();
+    }
+
+    private static Map<String, String> scriptProperties(Path script) {
+        Map<String, String> result = new HashMap<>();
+        try {
+            var content = Files.readString(script, UTF_8);
+            var matcher = SCRIPT_PROPERTY.matcher(content);
+            while (matcher.find()) {
+                result.putIfAbsent(matcher.group(1), matcher.group(2));
+            }
+        } catch (IOException e) {
+            log.atFine().withCause(e).log("Cannot read `%s`.", script);
+        }
+        return result;
+    }
+
+    private static String contentHash(Path file) {
+        try {
+            var hash = Hashing.sha256()
+                              .hashBytes(Files.readAllBytes(file))
+                              .toString();
+            return hash.substring(0, HASH_LENGTH);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Obtains the hash of the entry point and the package configuration, if any.
+     */
+    private static String sourcesHash(Path entryPoint, @Nullable Path packageConfig) {
+        var hasher = Hashing.sha256().newHasher();
+        try {
+            hasher.putBytes(Files.readAllBytes(entryPoint));
+            if (packageConfig != null) {
+                hasher.putBytes(Files.readAllBytes(packageConfig));
+            }
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+        return hasher.hash()
+                     .toString()
+                     .substring(0, HASH_LENGTH);
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name")
+                     .startsWith("Windows");
+    }
+
+    /**
+     * The Dart file from which the executable is compiled.
+     */
+    Path entryPoint() {
+        return entryPoint;
+    }
+
+    /**
+     * The package configuration with which the entry point is compiled.
+     *
+     * <p>If empty, the configuration is looked up by the Dart compiler next to
+     * the entry point.
+     */
+    Optional<Path> packageConfig() {
+        return Optional.ofNullable(packageConfig);
+    }
+
+    /**
+     * The version of the plugin under which the executable is cached.
+     */
+    String version() {
+        return version;
+    }
+
+    /**
+     * The location of the native executable in the cache.
+     *
+     * <p>The executable does not exist until it is compiled.
+     */
+    Path executable() {
+        return executable;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The directories into which the Dart files generated for {@code .proto} files are put.
+ *
+ * <p>The files generated for a {@code .proto} file go to the directory of the source set of
+ * the file. The files of the source sets which are not known explicitly go to
+ * the default directory.
+ *
+ * <p>The generated files are matched with their {@code .proto} files by the naming convention
+ * of the Dart plugin. See {@link GeneratedDartFiles}.
+ */
+final class OutputDirs {
+
+    private final Path defaultDir;
+    private final ImmutableMap<String, Path> dirs;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param defaultDir
+     *         the directory for the files of an unknown source set
+     * @param dirs
+     *         the directories keyed by the paths of the {@code .proto} files
+     */
+    OutputDirs(Path defaultDir, Map<String, Path> dirs) {
+        this.defaultDir = checkNotNull(defaultDir);
+        this.dirs = ImmutableMap.copyOf(dirs);
+    }
+
+    /**
+     * Obtains the directory for the files generated for the given {@code .proto} file.
+     */
+    Path forProto(String protoFile) {
+        return dirs.getOrDefault(protoFile, defaultDir);
+    }
+
+    /**
+     * Obtains the directory for the given generated file.
+     *
+     * @param generatedFile
+     *         the path of the generated file relative to the output directory of {@code protoc}
+     */
+    Path forGenerated(String generatedFile) {
+        return GeneratedDartFiles.protoFileOf(generatedFile)
+                                 .map(this::forProto)
+                                 .orElse(defaultDir);
+    }
+
+    /**
+     * Obtains all the directories.
+     */
+    ImmutableSet<Path> all() {
+        return ImmutableSet.<Path>builder()
+                .add(defaultDir)
+                .addAll(dirs.values())
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The graph of imports between {@code .proto} files.
+ *
+ * <p>The files are identified by their import paths, e.g. {@code spine/core/event.proto}.
+ *
+ * <p>The graph is stored as a text file. Each line holds a file followed by the files it
+ * imports, separated with tabs.
+ */
+final class ProtoImportGraph {
+
+    private static final char SEPARATOR = '\t';
+    private static final Splitter SPLITTER = Splitter.on(SEPARATOR).omitEmptyStrings();
+
+    private final Map<String, ImmutableSet<String>> imports;
+
+    private ProtoImportGraph(Map<String, ImmutableSet<String>> imports) {
+        this.imports = imports;
+    }
+
+    /**
+     * Creates a graph with no files.
+     */
+    static ProtoImportGraph empty() {
+        return new ProtoImportGraph(new TreeMap<>());
+    }
+
+    /**
+     * Reads the graph from the given file.
+     *
+     * <p>Returns an empty graph if the file does not exist.
+     */
+    static ProtoImportGraph read(Path file) {
+        checkNotNull(file);
+        var result = empty();
+        if (!Files.exists(file)) {
+            return result;
+        }
+        try {
+            for (var line : Files.readAllLines(file, UTF_8)) {
+                var parts = SPLITTER.splitToList(line);
+                if (!parts.isEmpty()) {
+                    var imported = ImmutableSet.copyOf(parts.subList(1, parts.size()));
+                    result.imports.put(parts.get(0), imported);
+                }
+            }
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+        return result;
+    }
+
+    /**
+     * Writes this graph to the given file.
+     */
+    void write(Path file) {
+        var content = new StringBuilder();
+        imports.forEach((importing, imported) -> {
+            content.append(importing);
+            imported.forEach(i -> content.append(SEPARATOR).append(i));
+            content.append('\n');
+        });
+        TargetFiles.write(file, content.toString().getBytes(UTF_8), true);
+    }
+
+    /**
+     * Replaces the imports of the files described in the given set.
+     */
+    void update(FileDescriptorSet descriptors) {
+        for (var file : descriptors.getFileList()) {
+            imports.put(file.getName(), ImmutableSet.copyOf(file.getDependencyList()));
+        }
+    }
+
+    /**
+     * Replaces the imports of the given files.
+     *
+     * @param files
+     *         the files directly imported by each file, keyed by the importing file
+     */
+    void update(Map<String, ? extends Collection<String>> files) {
+        files.forEach((file, imported) -> imports.put(file, ImmutableSet.copyOf(imported)));
+    }
+
+    /**
+     * Removes the given file from the graph.
+     *
+     * <p>The imports of the file by other files are kept.
+     */
+    void remove(String file) {
+        imports.remove(file);
+    }
+
+    /**
+     * Obtains the given files along with all the files which import them directly or
+     * transitively.
+     */
+    ImmutableSet<String> withDependents(Collection<String> files) {
+        Map<String, Set<String>> importedBy = new HashMap<>();
+        imports.forEach((importing, imported) -> {
+            for (var i : imported) {
+                importedBy.computeIfAbsent(i, k -> new HashSet<>())
+                          .add(importing);
+            }
+        });
+        Set<String> result = new HashSet<>(files);
+        var queue = new ArrayDeque<>(files);
+        while (!queue.isEmpty()) {
+            var file = queue.remove();
+            for (var dependent : importedBy.getOrDefault(file, Set.of())) {
+                if (result.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return ImmutableSet.copyOf(result);
+    }
+}
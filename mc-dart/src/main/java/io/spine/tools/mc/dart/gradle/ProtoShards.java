@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Splits {@code .proto} files into shards of a balanced size.
+ *
+ * <p>The files are distributed from the largest to the smallest one. Each file goes to
+ * the shard with the least total size so far. The size of a file approximates the time
+ * {@code protoc} spends on it.
+ *
+ * <p>The result depends only on the given files and the number of shards. Files of the same
+ * size are ordered by their paths, and the files in each shard are sorted by their paths.
+ */
+final class ProtoShards {
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private ProtoShards() {
+    }
+
+    /**
+     * Splits the given files into shards.
+     *
+     * @param files
+     *         the sizes of the files in bytes keyed by their paths
+     * @param shards
+     *         the maximum number of shards
+     * @return non-empty shards, at most {@code shards} of them
+     */
+    static ImmutableList<ImmutableList<String>> split(Map<String, Long> files, int shards) {
+        checkNotNull(files);
+        checkArgument(shards > 0, "The number of shards must be positive.");
+        var count = Math.min(shards, files.size());
+        var queue = new PriorityQueue<Shard>(
+                Comparator.comparingLong((Shard shard) -> shard.size)
+                          .thenComparingInt(shard -> shard.index)
+        );
+        List<Shard> result = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            var shard = new Shard(i);
+            result.add(shard);
+            queue.add(shard);
+        }
+        Comparator<Map.Entry<String, Long>> largestFirst =
+                Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                         .thenComparing(Map.Entry.comparingByKey());
+        files.entrySet()
+             .stream()
+             .sorted(largestFirst)
+             .forEach(file -> {
+                 var shard = queue.remove();
+                 shard.add(file.getKey(), file.getValue());
+                 queue.add(shard);
+             });
+        return result.stream()
+                     .map(shard -> ImmutableList.sortedCopyOf(shard.files))
+                     .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * A shard being filled.
+     */
+    private static final class Shard {
+
+        private final int index;
+        private final List<String> files = new ArrayList<>();
+        private long size;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        private void add(String file, long fileSize) {
+            files.add(file);
+            size += fileSize;
+        }
+    }
+}
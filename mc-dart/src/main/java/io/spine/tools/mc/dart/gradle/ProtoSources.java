@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The {@code .proto} files found on a proto path.
+ *
+ * <p>The files are identified by their import paths. The imports of a file are read from its
+ * {@code import} statements, without running {@code protoc}. The files imported but not found
+ * on the proto path, e.g. the well-known types built into {@code protoc}, are identified by
+ * their import paths only.
+ *
+ * <p>The results are memoized, so each file is read at most once.
+ */
+final class ProtoSources {
+
+    private static final Pattern IMPORT = Pattern.compile(
+            "^\\s*import\\s+(?:public\\s+|weak\\s+)?\"([^\"]+)\"\\s*;", Pattern.MULTILINE
+    );
+    private static final byte[] MISSING = {0};
+
+    private final ImmutableList<Path> protoPath;
+    private final Map<String, ImmutableSet<String>> imports = new HashMap<>();
+    private final Map<String, HashCode> digests = new HashMap<>();
+
+    /**
+     * Creates the sources found on the given proto path.
+     *
+     * @param protoPath
+     *         the directories with {@code .proto} files in the order of lookup
+     */
+    ProtoSources(List<Path> protoPath) {
+        this.protoPath = ImmutableList.copyOf(checkNotNull(protoPath));
+    }
+
+    /**
+     * Obtains the files directly imported by the given file.
+     *
+     * <p>Returns an empty set if the file is not found.
+     */
+    ImmutableSet<String> imports(String file) {
+        var result = imports.get(file);
+        if (result == null) {
+            result = find(file).map(ProtoSources::readImports)
+                               .orElse(ImmutableSet.of());
+            imports.put(file, result);
+        }
+        return result;
+    }
+
+    /**
+     * Obtains the files which were read so far along with their imports.
+     */
+    Map<String, ImmutableSet<String>> knownImports() {
+        return imports;
+    }
+
+    /**
+     * Obtains the digest of the given file and all the files it imports transitively.
+     *
+     * <p>The digest covers the import paths and the content of the files.
+     */
+    HashCode digest(String file) {
+        return digest(file, new HashSet<>());
+    }
+
+    private HashCode digest(String file, Set<String> visiting) {
+        var result = digests.get(file);
+        if (result != null) {
+            return result;
+        }
+        var hasher = Hashing.sha256().newHasher();
+        hasher.putString(file, UTF_8);
+        var path = find(file);
+        if (path.isPresent()) {
+            hasher.putBytes(read(path.get()));
+        } else {
+            hasher.putBytes(MISSING);
+        }
+        // Imports cannot be cyclic in valid files. A cycle is left for `protoc` to report.
+        if (visiting.add(file)) {
+            for (var imported : imports(file)) {
+                hasher.putBytes(digest(imported, visiting).asBytes());
+            }
+            visiting.remove(file);
+        }
+        result = hasher.hash();
+        digests.put(file, result);
+        return result;
+    }
+
+    private Optional<Path> find(String file) {
+        return protoPath.stream()
+                        .map(dir -> dir.resolve(file))
+                        .filter(Files::isRegularFile)
+                        .findFirst();
+    }
+
+    private static ImmutableSet<String> readImports(Path file) {
+        var content = new String(read(file), UTF_8);
+        var matcher = IMPORT.matcher(content);
+        var result = ImmutableSet.<String>builder();
+        while (matcher.find()) {
+            result.add(matcher.group(1));
+        }
+        return result.build();
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+}
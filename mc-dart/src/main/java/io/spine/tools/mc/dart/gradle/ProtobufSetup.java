@@ -0,0 +1,248 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gradle.osdetector.OsDetector;
+import com.google.protobuf.gradle.ExecutableLocator;
+import com.google.protobuf.gradle.GenerateProtoTask;
+import com.google.protobuf.gradle.GenerateProtoTaskCollection;
+import com.google.protobuf.gradle.ProtobufConfigurator;
+import com.google.protobuf.gradle.ProtobufConvention;
+import groovy.lang.Closure;
+import io.spine.tools.code.SourceSetName;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.gradle.api.NamedDomainObjectContainer;
+import org.gradle.api.Project;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.SourceDirectorySet;
+import org.gradle.api.plugins.ExtensionAware;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Provides access to the configuration of the Protobuf Gradle plugin in a project.
+ *
+ * <p>Must be created only after the Protobuf Gradle plugin is applied.
+ *
+ * <p>The Protobuf Gradle plugin of version 0.8.x exposes its configuration only as
+ * a {@linkplain ProtobufConvention convention}, which is configured with closures.
+ * The typed {@code ProtobufExtension} replaces it in version 0.9.x.
+ */
+final class ProtobufSetup {
+
+    /**
+     * The ID of the Protobuf Gradle plugin.
+     */
+    static final String PLUGIN_ID = "com.google.protobuf";
+
+    private static final String PROTO_SOURCES = "proto";
+    private static final String EXECUTABLE_EXTENSION = "exe";
+    private static final String EXTRACTED_PROTOS = "extracted-protos";
+    private static final String EXTRACTED_INCLUDE_PROTOS = "extracted-include-protos";
+
+    private final Project project;
+    private final ProtobufConfigurator protobuf;
+    private final ExecutableLocator protoc;
+    private final NamedDomainObjectContainer<ExecutableLocator> plugins;
+
+    private ProtobufSetup(Project project) {
+        this.project = project;
+        this.protobuf = project.getConvention()
+                               .getPlugin(ProtobufConvention.class)
+                               .getProtobuf();
+        var locator = new Capture<ExecutableLocator>(this);
+        protobuf.protoc(locator);
+        this.protoc = locator.value();
+        var plugins = new Capture<NamedDomainObjectContainer<ExecutableLocator>>(this);
+        protobuf.plugins(plugins);
+        this.plugins = plugins.value();
+    }
+
+    /**
+     * Obtains the configuration of the Protobuf Gradle plugin in the given project.
+     */
+    static ProtobufSetup of(Project project) {
+        checkNotNull(project);
+        return new ProtobufSetup(project);
+    }
+
+    /**
+     * Configures each {@code generateProto} task once the tasks are created.
+     *
+     * <p>The given action runs after the actions added by the plugins applied earlier.
+     */
+    void configureTasks(Consumer<GenerateProtoTask> action) {
+        protobuf.generateProtoTasks(new TasksClosure(this, action));
+    }
+
+    /**
+     * Obtains the {@code protoc} executable configured for the project.
+     *
+     * <p>If the executable is configured as an artifact, it is resolved from
+     * the repositories of the project. The classifier of the current platform is used
+     * unless the artifact specifies one.
+     *
+     * <p>Returns an empty collection if {@code protoc} is not configured.
+     */
+    FileCollection protocExecutable() {
+        var path = protoc.getPath();
+        if (path != null) {
+            return project.files(path);
+        }
+        var artifact = protoc.getArtifact();
+        if (artifact == null) {
+            return project.files();
+        }
+        var dependency = project.getDependencies()
+                                .create(withPlatform(artifact));
+        return project.getConfigurations()
+                      .detachedConfiguration(dependency);
+    }
+
+    /**
+     * Obtains the path to the {@code protoc} plugin with the given name.
+     *
+     * <p>The path is obtained when the provider is queried. So, the changes made to
+     * the plugin after this method is called are taken into account.
+     */
+    Provider<String> pluginPath(String name) {
+        return project.provider(() -> plugins.getByName(name).getPath());
+    }
+
+    private String withPlatform(String artifact) {
+        var parts = artifact.split("@", 2);
+        var coordinates = parts[0];
+        var extension = parts.length > 1 ? parts[1] : EXECUTABLE_EXTENSION;
+        if (coordinates.split(":").length < 4) {
+            var osDetector = project.getExtensions().getByType(OsDetector.class);
+            coordinates += ':' + osDetector.getClassifier();
+        }
+        return coordinates + '@' + extension;
+    }
+
+    /**
+     * Obtains the directories with the {@code .proto} files compiled for the given source set.
+     *
+     * <p>These are the source directories of the source set and the directory into which
+     * the Protobuf Gradle plugin extracts the {@code .proto} files of its dependencies.
+     */
+    FileCollection sourceDirs(SourceSetName ssn) {
+        var sourceSet = project.getExtensions()
+                               .getByType(JavaPluginExtension.class)
+                               .getSourceSets()
+                               .getByName(ssn.getValue());
+        var protoSources = (SourceDirectorySet) ((ExtensionAware) sourceSet)
+                .getExtensions()
+                .getByName(PROTO_SOURCES);
+        return project.files(protoSources.getSourceDirectories(),
+                             extractedDir(EXTRACTED_PROTOS, ssn));
+    }
+
+    /**
+     * Obtains the directories with the {@code .proto} files imported by the files of the given
+     * source set, but not compiled for it.
+     *
+     * <p>These are the {@code .proto} files of the compile classpath of the source set.
+     * For source sets other than {@code main}, these are also the {@code .proto} files
+     * of the {@code main} source set.
+     */
+    FileCollection includeDirs(SourceSetName ssn) {
+        var result = project.files(extractedDir(EXTRACTED_INCLUDE_PROTOS, ssn));
+        if (!ssn.equals(SourceSetName.main)) {
+            result.from(sourceDirs(SourceSetName.main));
+        }
+        return result;
+    }
+
+    private File extractedDir(String name, SourceSetName ssn) {
+        return project.getLayout()
+                      .getBuildDirectory()
+                      .dir(name + File.separator + ssn.getValue())
+                      .get()
+                      .getAsFile();
+    }
+
+    /**
+     * A closure which remembers the object it is called with.
+     *
+     * <p>Gradle calls a copy of the closure. The copy shares the reference to the remembered
+     * object with the original closure.
+     */
+    private static final class Capture<T> extends Closure<Void> {
+
+        private static final long serialVersionUID = 0L;
+
+        @SuppressWarnings("NonSerializableFieldInSerializableClass") // Never serialized.
+        private final AtomicReference<@Nullable T> value = new AtomicReference<>();
+
+        private Capture(Object owner) {
+            super(owner);
+        }
+
+        @SuppressWarnings({"unused", "unchecked"}) // Invoked by Groovy.
+        public void doCall(Object value) {
+            this.value.set((T) value);
+        }
+
+        private T value() {
+            var result = value.get();
+            checkState(result != null, "The closure is not called.");
+            return result;
+        }
+    }
+
+    /**
+     * A closure which configures each task in a {@link GenerateProtoTaskCollection}.
+     */
+    private static final class TasksClosure extends Closure<Void> {
+
+        private static final long serialVersionUID = 0L;
+
+        @SuppressWarnings("NonSerializableFieldInSerializableClass") // Never serialized.
+        private final Consumer<GenerateProtoTask> action;
+
+        private TasksClosure(Object owner, Consumer<GenerateProtoTask> action) {
+            super(owner);
+            this.action = action;
+        }
+
+        @SuppressWarnings("unused") // Invoked by Groovy.
+        public void doCall(GenerateProtoTaskCollection tasks) {
+            // Copy the live view of the tasks to avoid concurrent modification.
+            ImmutableList.copyOf(tasks.all())
+                         .forEach(action);
+        }
+    }
+}
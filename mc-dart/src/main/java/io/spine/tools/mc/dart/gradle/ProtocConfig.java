@@ -26,21 +26,36 @@
 
 package io.spine.tools.mc.dart.gradle;
 
+import com.google.common.flogger.FluentLogger;
 import com.google.protobuf.gradle.ExecutableLocator;
-import io.spine.tools.dart.fs.ProtocPluginPath;
+import com.google.protobuf.gradle.GenerateProtoTask;
 import io.spine.tools.gradle.ProtocConfigurationPlugin;
 import org.gradle.api.NamedDomainObjectContainer;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.tasks.TaskProvider;
+
+import java.nio.file.Path;
 
 import static io.spine.tools.gradle.ProtocPluginName.dart;
+import static io.spine.tools.mc.dart.gradle.Projects.getMcDart;
 
 /**
  * A Gradle plugin that performs additional {@code protoc} configurations
  * relevant for Dart projects.
+ *
+ * <p>The plugin is located once for all the projects in the build.
+ * See {@link ProtocPluginLocator}.
+ *
+ * <p>If {@linkplain McDartOptions#getCompileProtocPlugin() requested}, the {@code protoc}
+ * plugin for Dart is replaced with the {@linkplain NativeProtocPlugin native executable}
+ * compiled from it.
  */
 final class ProtocConfig extends ProtocConfigurationPlugin {
 
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final String CACHE_DIR = "caches/mc-dart/protoc-plugin";
+
     /**
      * Creates a new instance of the plugin and applies it to the given project.
      */
@@ -51,7 +66,68 @@ final class ProtocConfig extends ProtocConfigurationPlugin {
     @Override
     protected void configureProtocPlugins(NamedDomainObjectContainer<ExecutableLocator> plugins,
                                           Project project) {
-        var executable = ProtocPluginPath.locate();
-        plugins.create(dart.name(), locator -> locator.setPath(executable.toString()));
+        var executable = ProtocPluginLocator.locate(project);
+        var locator = plugins.create(dart.name(),
+                                     plugin -> plugin.setPath(executable.toString()));
+        if (project.getState().getExecuted()) {
+            useNativePlugin(project, locator, executable);
+        } else {
+            project.afterEvaluate(p -> useNativePlugin(p, locator, executable));
+        }
+    }
+
+    /**
+     * Makes {@code protoc} use the native executable compiled from the given plugin,
+     * if the options require so.
+     *
+     * <p>If the entry point of the plugin cannot be determined, the plugin is used as-is.
+     */
+    private static void useNativePlugin(Project project,
+                                        ExecutableLocator locator,
+                                        Path plugin) {
+        var options = getMcDart(project);
+        if (!options.getCompileProtocPlugin().get()) {
+            return;
+        }
+        var cacheDir = project.getGradle()
+                              .getGradleUserHomeDir()
+                              .toPath()
+                              .resolve(CACHE_DIR);
+        var nativePlugin = NativeProtocPlugin.sdkVersion()
+                .flatMap(sdkVersion -> NativeProtocPlugin.of(plugin, cacheDir, sdkVersion));
+        if (nativePlugin.isEmpty()) {
+            log.atWarning().log("Cannot compile the `protoc` plugin `%s`. Using it as-is.",
+                                plugin);
+            return;
+        }
+        var compiled = nativePlugin.get();
+        log.atFine().log("Using the native `protoc` plugin `%s`.", compiled.version());
+        var compileTask = compileTask(project, compiled);
+        locator.setPath(compiled.executable().toString());
+        var tasks = project.getTasks();
+        tasks.withType(GenerateProtoTask.class)
+             .configureEach(task -> task.dependsOn(compileTask));
+        tasks.withType(GenerateDart.class)
+             .configureEach(task -> task.dependsOn(compileTask));
+    }
+
+    /**
+     * Registers the task compiling the given plugin in the given project.
+     *
+     * <p>The executable is shared by all the projects of the build. The tasks of the projects
+     * use a {@linkplain CompileProtocPluginService shared service}, so that only the first one
+     * compiles it.
+     */
+    private static TaskProvider<CompileProtocPlugin> compileTask(Project project,
+                                                                 NativeProtocPlugin plugin) {
+        var service = CompileProtocPluginService.register(project);
+        var tasks = project.getTasks();
+        return tasks.register(CompileProtocPlugin.NAME, CompileProtocPlugin.class, task -> {
+            task.getEntryPoint().set(plugin.entryPoint().toFile());
+            plugin.packageConfig()
+                  .ifPresent(config -> task.getPackageConfig().set(config.toFile()));
+            task.getExecutable().set(plugin.executable().toFile());
+            task.usesService(service);
+        });
     }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import io.spine.tools.dart.fs.ProtocPluginPath;
+import io.spine.tools.mc.dart.gradle.McDartEvents.ProtocPluginLocation;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.gradle.api.Project;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Locates the {@code protoc} plugin for Dart once per machine.
+ *
+ * <p>{@link ProtocPluginPath#locate()} probes {@code PATH} and the pub cache. The service
+ * performs the lookup at most once per build, for all the projects applying mc-dart.
+ *
+ * <p>The located path is also stored in a {@linkplain Parameters#getCacheFile() file} along
+ * with the size and the modification time of the plugin and the values of the environment
+ * variables affecting the lookup. If the plugin is not changed, and the variables are the same,
+ * the next builds take the path from the file without the lookup.
+ */
+public abstract class ProtocPluginLocator implements BuildService<ProtocPluginLocator.Parameters> {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final String NAME = "mcDartProtocPluginLocator";
+    private static final String CACHE_FILE = "caches/mc-dart/protoc-plugin.properties";
+    private static final String PATH = "path";
+    private static final String SIZE = "size";
+    private static final String MODIFIED = "modified";
+    private static final String ENVIRONMENT_PREFIX = "env.";
+
+    /**
+     * The environment variables affecting the lookup of the plugin.
+     */
+    private static final ImmutableList<String> ENVIRONMENT = ImmutableList.of("PATH", "PUB_CACHE");
+
+    private @MonotonicNonNull Path located;
+
+    /**
+     * Obtains the {@code protoc} plugin for Dart using the service shared by the build
+     * of the given project.
+     */
+    static Path locate(Project project) {
+        checkNotNull(project);
+        var cacheFile = project.getGradle()
+                               .getGradleUserHomeDir()
+                               .toPath()
+                               .resolve(CACHE_FILE)
+                               .toFile();
+        var service = project.getGradle()
+                             .getSharedServices()
+                             .registerIfAbsent(NAME, ProtocPluginLocator.class, spec ->
+                                     spec.getParameters().getCacheFile().set(cacheFile)
+                             );
+        return service.get().locate();
+    }
+
+    /**
+     * Obtains the path to the {@code protoc} plugin for Dart.
+     */
+    synchronized Path locate() {
+        if (located == null) {
+            var event = new ProtocPluginLocation();
+            event.begin();
+            var cacheFile = getParameters().getCacheFile().getAsFile().get().toPath();
+            var environment = System.getenv();
+            var cached = fromCache(cacheFile, environment);
+            located = cached.orElseGet(() -> {
+                var path = ProtocPluginPath.locate();
+                store(cacheFile, path, environment);
+                return path;
+            });
+            event.record(located, cached.isPresent());
+        }
+        return located;
+    }
+
+    /**
+     * Obtains the location of the plugin stored in the given file.
+     *
+     * @param cacheFile
+     *         the file with the location
+     * @param environment
+     *         the current environment variables
+     * @return the location or {@code Optional.empty()} if there is no stored location, or it
+     *         is stale
+     */
+    static Optional<Path> fromCache(Path cacheFile, Map<String, String> environment) {
+        if (!Files.exists(cacheFile)) {
+            return Optional.empty();
+        }
+        var cached = new Properties();
+        try (Reader reader = Files.newBufferedReader(cacheFile, UTF_8)) {
+            cached.load(reader);
+        } catch (IOException e) {
+            log.atFine().withCause(e).log("Cannot read `%s`.", cacheFile);
+            return Optional.empty();
+        }
+        var path = cached.getProperty(PATH);
+        if (path == null) {
+            return Optional.empty();
+        }
+        var plugin = Path.of(path);
+        var actual = describe(plugin, environment);
+        if (actual.isEmpty() || !actual.get().equals(cached)) {
+            log.atFine().log("The cached location of the `protoc` plugin `%s` is stale.", path);
+            return Optional.empty();
+        }
+        return Optional.of(plugin);
+    }
+
+    /**
+     * Stores the location of the plugin located in the given environment in the given file.
+     */
+    static void store(Path cacheFile, Path plugin, Map<String, String> environment) {
+        var description = describe(plugin, environment);
+        if (description.isEmpty()) {
+            return;
+        }
+        var temp = cacheFile.resolveSibling(cacheFile.getFileName() + "." + UUID.randomUUID());
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(temp, UTF_8)) {
+                description.get().store(writer, null);
+            }
+            Files.move(temp, cacheFile, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.atFine().withCause(e).log("Cannot write `%s`.", cacheFile);
+        } finally {
+            TargetFiles.delete(temp);
+        }
+    }
+
+    /**
+     * Describes the plugin at the given path in the given environment.
+     *
+     * @return the description or {@code Optional.empty()} if the plugin does not exist
+     */
+    private static Optional<Properties> describe(Path plugin, Map<String, String> environment) {
+        try {
+            var result = new Properties();
+            result.setProperty(PATH, plugin.toString());
+            result.setProperty(SIZE, String.valueOf(Files.size(plugin)));
+            result.setProperty(MODIFIED,
+                               String.valueOf(Files.getLastModifiedTime(plugin).toMillis()));
+            for (var variable : ENVIRONMENT) {
+                result.setProperty(ENVIRONMENT_PREFIX + variable,
+                                   environment.getOrDefault(variable, ""));
+            }
+            return Optional.of(result);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Parameters of the {@link ProtocPluginLocator}.
+     */
+    public interface Parameters extends BuildServiceParameters {
+
+        /**
+         * The file in which the located path is stored between builds.
+         */
+        RegularFileProperty getCacheFile();
+    }
+}
@@ -0,0 +1,496 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.Lists;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.math.IntMath;
+import io.spine.tools.mc.dart.gradle.McDartEvents.CopyBatch;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFiles;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.SkipWhenEmpty;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.util.PatternFilterable;
+import org.gradle.work.ChangeType;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkerExecutor;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_WRITTEN;
+import static java.lang.String.format;
+import static org.gradle.api.tasks.PathSensitivity.RELATIVE;
+
+/**
+ * Places the Dart files generated from Protobuf into the directory of a source set
+ * {@linkplain ImportResolver resolving} imports in them.
+ *
+ * <p>The task reads the files produced by {@code protoc} from the
+ * {@linkplain #getGeneratedDir() generated directory} and writes them under the same
+ * relative paths into the {@linkplain #getTargetDir() target directory}.
+ *
+ * <p>The task is incremental. Only the files added or modified since the previous run are
+ * processed. When a generated file is removed, its counterpart in the target directory
+ * is deleted as well.
+ *
+ * <p>If the {@linkplain #getMaxParallelism() parallelism} is greater than one, the files are
+ * processed by the Gradle workers.
+ *
+ * <p>If {@linkplain #getCopyOtherFiles() requested}, the task also copies the rest of
+ * the generated files as-is. Then the whole output of {@code protoc} is placed into the target
+ * directory in a single pass.
+ *
+ * <p>The task records the files it has written in the {@linkplain #getManifest() manifest}.
+ * In the {@linkplain #getSync() sync} mode, the previously written files which are no longer
+ * generated are deleted even if Gradle does not report them as removed, e.g. after a rerun
+ * which is not incremental.
+ *
+ * <p>The task is cacheable. Its inputs are tracked relative to the generated directory, and
+ * each file written by the task is declared as a separate output. So, the outputs of the task
+ * do not overlap with the hand-written code in the target directory.
+ *
+ * <p>The task is compatible with the Gradle configuration cache. Its state consists only of
+ * properties, file collections, and the plain map of modules.
+ */
+@CacheableTask
+public abstract class ResolveImports extends DefaultTask {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+    private static final String MANIFEST_DIR = "mc-dart";
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String BATCH_REPORT = "batch-%d.properties";
+    private static final String PRUNE = "prune";
+    private static final String SCAN_GENERATED = "scanGenerated";
+    private static final String SCAN_OTHER = "scanOther";
+    private static final String COPY = "copy";
+    private static final String RESOLVE = "resolve";
+    private static final String RECORD = "record";
+
+    private final FileCollection generatedFiles;
+    private final FileCollection otherFiles;
+
+    @Inject
+    protected abstract ProjectLayout getLayout();
+
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    protected ResolveImports() {
+        super();
+        getCopyStrategy().convention(CopyStrategy.COPY);
+        getReport().convention(TaskReport.defaultFile(getLayout(), getName()));
+        var manifest = MANIFEST_DIR + '/' + getName() + MANIFEST_EXTENSION;
+        getManifest().convention(getLayout().getBuildDirectory().file(manifest));
+        var matchingFiles = getGeneratedDir().map(this::matchingFiles);
+        this.generatedFiles = getLayout().files(matchingFiles);
+        var otherFiles = getGeneratedDir().zip(getCopyOtherFiles(), this::otherFiles);
+        this.otherFiles = getLayout().files(otherFiles);
+    }
+
+    /**
+     * The directory into which {@code protoc} puts the generated Dart files.
+     */
+    @Internal
+    public abstract DirectoryProperty getGeneratedDir();
+
+    /**
+     * The directory into which the files with the resolved imports are written.
+     */
+    @Internal
+    public abstract DirectoryProperty getTargetDir();
+
+    /**
+     * The root directory against which imports are resolved.
+     *
+     * <p>The paths in the resolved {@code package:} imports are relative to this directory.
+     * Dart resolves {@code package:} URIs against the {@code lib} directory of a package.
+     * So, it is the {@code lib} directory for the tasks of all the source sets, even if
+     * the {@linkplain #getTargetDir() target directory} is another one, e.g. {@code test}.
+     *
+     * @see McDartOptions#getLibDir()
+     */
+    @Internal
+    public abstract DirectoryProperty getLibDir();
+
+    /**
+     * Names of Dart modules and directories they provide.
+     *
+     * @see McDartOptions#modules
+     */
+    @Input
+    public abstract MapProperty<String, List<String>> getModules();
+
+    /**
+     * The service sharing the index of the {@linkplain #getModules() modules} between
+     * the tasks of the build.
+     *
+     * <p>If not set, the index is compiled by the task.
+     */
+    @Internal
+    public abstract Property<ModuleIndexService> getModuleIndexService();
+
+    /**
+     * Patterns of the generated files subject to import resolution.
+     *
+     * @see McDartOptions#getIncludes()
+     */
+    @Input
+    public abstract ListProperty<String> getIncludes();
+
+    /**
+     * Patterns of the generated files excluded from import resolution.
+     *
+     * @see McDartOptions#getExcludes()
+     */
+    @Input
+    public abstract ListProperty<String> getExcludes();
+
+    /**
+     * Tells if the generated files not subject to import resolution are copied to
+     * the target directory by this task.
+     *
+     * @see McDartOptions#getFuseCopy()
+     */
+    @Input
+    public abstract Property<Boolean> getCopyOtherFiles();
+
+    /**
+     * Tells if the target files are written only when their content changes.
+     *
+     * @see McDartOptions#getWriteOnlyIfChanged()
+     */
+    @Internal
+    public abstract Property<Boolean> getWriteOnlyIfChanged();
+
+    /**
+     * Defines how the files which do not need changes are placed into the target directory.
+     *
+     * <p>Defaults to {@link CopyStrategy#COPY COPY}.
+     *
+     * @see McDartOptions#getCopyStrategy()
+     */
+    @Internal
+    public abstract Property<CopyStrategy> getCopyStrategy();
+
+    /**
+     * Tells if the previously written files which are no longer generated are deleted.
+     *
+     * @see McDartOptions#getSync()
+     */
+    @Input
+    public abstract Property<Boolean> getSync();
+
+    /**
+     * The file listing the files written by this task.
+     *
+     * <p>The manifest is not an output of the task. It describes the state of the target
+     * directory and must survive the reruns of the task as well as loading its outputs
+     * from the build cache.
+     *
+     * <p>Defaults to {@code build/mc-dart/<task name>.manifest}.
+     */
+    @Internal
+    public abstract RegularFileProperty getManifest();
+
+    /**
+     * The file into which the {@linkplain TaskReport performance report} of the import
+     * resolution is written.
+     *
+     * <p>The report is rewritten on each execution of the task. It is not an output of
+     * the task.
+     *
+     * <p>Defaults to {@code build/reports/mc-dart/<task name>.json}.
+     */
+    @Internal
+    public abstract RegularFileProperty getReport();
+
+    /**
+     * The name of the source set processed by the task, as mentioned in the report.
+     */
+    @Internal
+    public abstract Property<String> getSourceSetName();
+
+    /**
+     * The maximum number of work items processing the files in parallel.
+     *
+     * @see McDartOptions#getMaxParallelism()
+     */
+    @Internal
+    public abstract Property<Integer> getMaxParallelism();
+
+    /**
+     * The Dart files generated from Protobuf which are processed by this task.
+     *
+     * <p>The {@linkplain #getIncludes() includes} and {@linkplain #getExcludes() excludes}
+     * are applied while walking the generated directory. The files not matching them are
+     * never read by this task.
+     */
+    @InputFiles
+    @Incremental
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(RELATIVE)
+    public FileCollection getGeneratedFiles() {
+        return generatedFiles;
+    }
+
+    /**
+     * The generated files which are copied to the target directory as-is.
+     *
+     * <p>Empty unless this task {@linkplain #getCopyOtherFiles() copies} such files.
+     */
+    @InputFiles
+    @Incremental
+    @SkipWhenEmpty
+    @IgnoreEmptyDirectories
+    @PathSensitive(RELATIVE)
+    public FileCollection getOtherFiles() {
+        return otherFiles;
+    }
+
+    private FileTree matchingFiles(Directory generatedDir) {
+        return generatedDir.getAsFileTree()
+                           .matching(this::configurePatterns);
+    }
+
+    private FileCollection otherFiles(Directory generatedDir, boolean copyOtherFiles) {
+        if (!copyOtherFiles) {
+            return generatedDir.files();
+        }
+        var resolvedFiles = new ResolvedFiles(getIncludes(), getExcludes());
+        return generatedDir.getAsFileTree()
+                           .matching(other -> other.exclude(resolvedFiles));
+    }
+
+    private PatternFilterable configurePatterns(PatternFilterable patterns) {
+        return patterns.include(getIncludes().get())
+                       .exclude(getExcludes().get());
+    }
+
+    /**
+     * Obtains the location of the {@linkplain #getLibDir() lib directory} relative to
+     * the {@linkplain #getTargetDir() target directory}.
+     *
+     * <p>Imports are resolved differently if the location changes.
+     */
+    @Input
+    protected String getLibLocation() {
+        var targetPath = path(getTargetDir());
+        var libPath = path(getLibDir());
+        return targetPath.relativize(libPath)
+                         .toString()
+                         .replace(File.separatorChar, '/');
+    }
+
+    /**
+     * The files written by this task.
+     *
+     * <p>These are the counterparts of the {@linkplain #getGeneratedFiles() generated} and
+     * {@linkplain #getOtherFiles() other} files in the target directory, keyed by their paths
+     * relative to the target directory.
+     *
+     * <p>The files are declared as a map, so that Gradle can store them in the build cache.
+     */
+    @OutputFiles
+    public Map<String, File> getResolvedFiles() {
+        var generatedDir = getGeneratedDir().get();
+        var files = getCopyOtherFiles().get()
+                    ? generatedDir.getAsFileTree()
+                    : matchingFiles(generatedDir);
+        var targetDir = getTargetDir().get();
+        Map<String, File> result = new HashMap<>();
+        files.visit(details -> {
+            if (!details.isDirectory()) {
+                var path = details.getPath();
+                result.put(path, targetDir.file(path).getAsFile());
+            }
+        });
+        return result;
+    }
+
+    @TaskAction
+    void resolveImports(InputChanges changes) {
+        if (!changes.isIncremental()) {
+            log.atFine().log("Resolving imports in all the files of `%s`.", getGeneratedDir());
+        }
+        var report = new TaskReport();
+        var manifest = new Manifest(getManifest().getAsFile().get().toPath());
+        if (getSync().get()) {
+            report.time(PRUNE, () -> manifest.prune(path(getGeneratedDir()),
+                                                   path(getTargetDir())));
+        }
+        var changed = report.time(SCAN_GENERATED, () -> changedFiles(changes, generatedFiles));
+        var copied = report.time(SCAN_OTHER, () -> changedFiles(changes, otherFiles));
+        report.time(COPY, () -> copy(copied, report));
+        var parallelism = getMaxParallelism().get();
+        report.time(RESOLVE, () -> {
+            if (parallelism > 1 && changed.size() > 1) {
+                submit(changed, parallelism, report);
+            } else {
+                resolve(changed, newResolver(), report);
+            }
+        });
+        report.time(RECORD, () -> manifest.record(getResolvedFiles().keySet()));
+        report.write(getReport().getAsFile().get().toPath(),
+                     this, ResolveImports.class,
+                     getSourceSetName().getOrElse(""),
+                     changes.isIncremental());
+    }
+
+    /**
+     * Obtains the paths of the added and modified files among the given ones.
+     *
+     * <p>Deletes the counterparts of the removed files from the target directory.
+     */
+    private List<String> changedFiles(InputChanges changes, FileCollection files) {
+        var targetDir = getTargetDir().get();
+        List<String> result = new ArrayList<>();
+        for (var change : changes.getFileChanges(files)) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+            var path = change.getNormalizedPath();
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                var target = targetDir.file(path).getAsFile().toPath();
+                TargetFiles.delete(target);
+            } else {
+                result.add(path);
+            }
+        }
+        return result;
+    }
+
+    private ImportResolver newResolver() {
+        var modules = moduleIndex(getModuleIndexService(), getModules().get());
+        return new ImportResolver(path(getLibDir()),
+                                  modules,
+                                  getWriteOnlyIfChanged().get(),
+                                  getCopyStrategy().get());
+    }
+
+    private void resolve(List<String> paths, ImportResolver resolver, TaskReport report) {
+        var generatedDir = getGeneratedDir().get();
+        var targetDir = getTargetDir().get();
+        for (var path : paths) {
+            var generatedFile = generatedDir.file(path).getAsFile().toPath();
+            var target = targetDir.file(path).getAsFile().toPath();
+            resolver.resolve(generatedFile, target, report);
+        }
+    }
+
+    private void copy(List<String> paths, TaskReport report) {
+        var generatedDir = getGeneratedDir().get();
+        var targetDir = getTargetDir().get();
+        var onlyIfChanged = getWriteOnlyIfChanged().get();
+        var strategy = getCopyStrategy().get();
+        var event = new CopyBatch();
+        event.begin();
+        var written = report.get(BYTES_WRITTEN);
+        for (var path : paths) {
+            var generatedFile = generatedDir.file(path).getAsFile().toPath();
+            var target = targetDir.file(path).getAsFile().toPath();
+            TargetFiles.copy(generatedFile, target, onlyIfChanged, strategy, report);
+        }
+        event.record(getPath(), paths.size(), report.get(BYTES_WRITTEN) - written);
+    }
+
+    /**
+     * Splits the given files into batches and submits each batch as a separate work item.
+     *
+     * <p>The number of batches does not exceed the given parallelism. The files are
+     * independent of each other, so the result is the same as of the serial processing.
+     *
+     * <p>Waits for the work items to complete and adds the work they have done to
+     * the given report.
+     */
+    private void submit(List<String> paths, int parallelism, TaskReport report) {
+        var batchSize = IntMath.divide(paths.size(), parallelism, RoundingMode.CEILING);
+        var queue = getWorkerExecutor().noIsolation();
+        var batches = Lists.partition(paths, batchSize);
+        List<Path> reports = new ArrayList<>(batches.size());
+        for (var batch : batches) {
+            var batchReport = getTemporaryDir().toPath()
+                                               .resolve(format(BATCH_REPORT, reports.size()));
+            reports.add(batchReport);
+            queue.submit(ResolveImportsWork.class, params -> {
+                params.getGeneratedDir().set(getGeneratedDir());
+                params.getTargetDir().set(getTargetDir());
+                params.getLibDir().set(getLibDir());
+                params.getModules().set(getModules());
+                params.getModuleIndexService().set(getModuleIndexService());
+                params.getWriteOnlyIfChanged().set(getWriteOnlyIfChanged());
+                params.getCopyStrategy().set(getCopyStrategy());
+                params.getFiles().set(batch);
+                params.getReport().set(batchReport.toFile());
+            });
+        }
+        queue.await();
+        reports.forEach(report::addStored);
+    }
+
+    /**
+     * Obtains the index of the given modules from the service, if the service is set.
+     *
+     * <p>Otherwise, compiles the index.
+     */
+    static ModuleIndex moduleIndex(Property<ModuleIndexService> service,
+                                   Map<String, List<String>> modules) {
+        return service.isPresent()
+               ? service.get().index(modules)
+               : ModuleIndex.of(modules);
+    }
+
+    private static Path path(DirectoryProperty directory) {
+        return directory.getAsFile()
+                        .map(File::toPath)
+                        .get();
+    }
+}
@@ -26,18 +26,10 @@
 
 package io.spine.tools.mc.dart.gradle;
 
-import com.google.common.flogger.FluentLogger;
-import io.spine.tools.dart.fs.DartFile;
-import io.spine.tools.fs.ExternalModules;
+import com.google.common.collect.ImmutableMap;
 import io.spine.tools.code.SourceSetName;
-import io.spine.tools.gradle.task.GradleTask;
-import org.gradle.api.Action;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
-
-import java.io.File;
-import java.nio.file.Path;
-import java.util.Set;
+import org.gradle.api.provider.Provider;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.tools.gradle.project.Projects.getSourceSetNames;
@@ -48,11 +40,19 @@ import static io.spine.tools.mc.dart.gradle.Projects.getMcDart;
 
 /**
  * Creates {@link McDartTaskName#resolveImports(SourceSetName) resolveImports} tasks in a project.
+ *
+ * <p>Each task processes only the files generated for its source set and writes them into
+ * the {@linkplain CopyTask#targetDir(Project, SourceSetName) target directory} of the source
+ * set. Imports are resolved against the {@linkplain McDartOptions#getLibDir() lib directory}
+ * for all the source sets, since the {@code package:} imports always refer to it.
+ *
+ * <p>The tasks are registered lazily. They are created and configured only if they are
+ * needed for the build.
+ *
+ * @see ResolveImports
  */
 final class ResolveImportsTask {
 
-    private static final FluentLogger log = FluentLogger.forEnclosingClass();
-
     private final Project project;
 
     private ResolveImportsTask(Project project) {
@@ -70,60 +70,34 @@ final class ResolveImportsTask {
     }
 
     private void createTasks() {
+        var moduleIndex = ModuleIndexService.register(project);
         var sourceSetNames = getSourceSetNames(project);
-        sourceSetNames.forEach(this::createTask);
+        sourceSetNames.forEach(ssn -> createTask(ssn, moduleIndex));
     }
 
-    private void createTask(SourceSetName ssn) {
-        var action = createAction();
+    private void createTask(SourceSetName ssn, Provider<ModuleIndexService> moduleIndex) {
         var taskName = resolveImports(ssn);
         var copyTaskName = copyGeneratedDart(ssn);
-        GradleTask.newBuilder(taskName, action)
-                .insertAfterTask(copyTaskName)
-                .insertBeforeTask(assemble)
-                .applyNowTo(project);
-    }
-
-    private Action<Task> createAction() {
-        var options = getMcDart(project);
-        var libDir = options.getLibDir();
-        var libPath = libDir.getAsFile()
-                            .map(File::toPath)
-                            .get();
-        var generatedFiles = libDir.getAsFileTree().getFiles();
-        var modules = options.modules();
-        Action<Task> action = new ResolveImportsAction(libPath, generatedFiles, modules);
-        return action;
-    }
-
-    /**
-     * {@linkplain DartFile#resolveImports(Path, ExternalModules) Replaces} imports in
-     * the given generated files taking into account the path to {@code lib} files and
-     * external modules.
-     */
-    private static final class ResolveImportsAction implements Action<Task> {
-
-        private final Path libPath;
-        private final Set<File> generatedFiles;
-        private final ExternalModules modules;
-
-        private ResolveImportsAction(Path libPath,
-                                     Set<File> generatedFiles,
-                                     ExternalModules modules) {
-            this.libPath = libPath;
-            this.generatedFiles = generatedFiles;
-            this.modules = modules;
-        }
-
-        @Override
-        public void execute(Task task) {
-            generatedFiles.forEach(this::resolveImports);
-        }
-
-        private void resolveImports(File sourceFile) {
-            log.atFine().log("Resolving imports in the file `%s`.", sourceFile);
-            var file = DartFile.read(sourceFile.toPath());
-            file.resolveImports(libPath, modules);
-        }
+        var tasks = project.getTasks();
+        tasks.register(taskName.name(), ResolveImports.class, task -> {
+            var options = getMcDart(project);
+            task.getGeneratedDir().set(CopyTask.sourceDir(project, ssn));
+            task.getTargetDir().set(CopyTask.targetDir(project, ssn));
+            task.getLibDir().set(options.getLibDir());
+            task.getModules().set(project.provider(() -> ImmutableMap.copyOf(options.modules)));
+            task.getModuleIndexService().set(moduleIndex);
+            task.usesService(moduleIndex);
+            task.getIncludes().set(options.getIncludes());
+            task.getExcludes().set(options.getExcludes());
+            task.getCopyOtherFiles().set(options.getFuseCopy());
+            task.getSync().set(options.getSync());
+            task.getWriteOnlyIfChanged().set(options.getWriteOnlyIfChanged());
+            task.getCopyStrategy().set(options.getCopyStrategy());
+            task.getMaxParallelism().set(options.getMaxParallelism());
+            task.getSourceSetName().set(ssn.getValue());
+            task.dependsOn(copyTaskName.name());
+        });
+        tasks.named(assemble.name())
+             .configure(assembleTask -> assembleTask.dependsOn(taskName.name()));
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * A portion of the work of a {@link ResolveImports} task executed
+ * by the Gradle {@linkplain org.gradle.workers.WorkerExecutor workers}.
+ *
+ * <p>Resolves imports in the given batch of generated files.
+ */
+public abstract class ResolveImportsWork implements WorkAction<ResolveImportsWork.Parameters> {
+
+    @Override
+    public void execute() {
+        var params = getParameters();
+        var generatedDir = params.getGeneratedDir().get();
+        var targetDir = params.getTargetDir().get();
+        var libPath = params.getLibDir().get().getAsFile().toPath();
+        var modules = ResolveImports.moduleIndex(params.getModuleIndexService(),
+                                                 params.getModules().get());
+        var resolver = new ImportResolver(libPath,
+                                          modules,
+                                          params.getWriteOnlyIfChanged().get(),
+                                          params.getCopyStrategy().get());
+        var report = new TaskReport();
+        for (var path : params.getFiles().get()) {
+            var generatedFile = generatedDir.file(path).getAsFile().toPath();
+            var target = targetDir.file(path).getAsFile().toPath();
+            resolver.resolve(generatedFile, target, report);
+        }
+        report.store(params.getReport().getAsFile().get().toPath());
+    }
+
+    /**
+     * Parameters of the {@link ResolveImportsWork}.
+     */
+    public interface Parameters extends WorkParameters {
+
+        /**
+         * The directory into which {@code protoc} puts the generated Dart files.
+         */
+        DirectoryProperty getGeneratedDir();
+
+        /**
+         * The directory into which the files with the resolved imports are written.
+         */
+        DirectoryProperty getTargetDir();
+
+        /**
+         * The {@code lib} directory, against which imports are resolved.
+         */
+        DirectoryProperty getLibDir();
+
+        /**
+         * Names of Dart modules and directories they provide.
+         */
+        MapProperty<String, List<String>> getModules();
+
+        /**
+         * The service sharing the index of the {@linkplain #getModules() modules}.
+         *
+         * <p>If not set, the index is compiled by the work item.
+         */
+        Property<ModuleIndexService> getModuleIndexService();
+
+        /**
+         * The file into which the counters of the work done are stored.
+         */
+        RegularFileProperty getReport();
+
+        /**
+         * Tells if the target files are written only when their content changes.
+         */
+        Property<Boolean> getWriteOnlyIfChanged();
+
+        /**
+         * The way the files with no imports to resolve are placed to the target location.
+         */
+        Property<CopyStrategy> getCopyStrategy();
+
+        /**
+         * Paths of the files to process, relative to the generated directory.
+         *
+         * <p>Separated with {@code /} regardless of the {@linkplain File#separator platform}.
+         */
+        ListProperty<String> getFiles();
+    }
+}
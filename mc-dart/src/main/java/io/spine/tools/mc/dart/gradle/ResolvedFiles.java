@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.util.PatternSet;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Matches the generated files subject to import resolution.
+ *
+ * <p>Directories are never matched.
+ *
+ * <p>The patterns are obtained from the given providers when the first file is matched.
+ * So, the specification may be created before the patterns are configured.
+ *
+ * <p>The class holds no references to the {@code Project} model and may be stored in
+ * the Gradle configuration cache.
+ *
+ * @see McDartOptions#getIncludes()
+ * @see McDartOptions#getExcludes()
+ */
+final class ResolvedFiles implements Spec<FileTreeElement> {
+
+    private final Provider<List<String>> includes;
+    private final Provider<List<String>> excludes;
+    private transient @MonotonicNonNull Spec<FileTreeElement> patterns;
+
+    ResolvedFiles(Provider<List<String>> includes, Provider<List<String>> excludes) {
+        this.includes = checkNotNull(includes);
+        this.excludes = checkNotNull(excludes);
+    }
+
+    @Override
+    public boolean isSatisfiedBy(FileTreeElement element) {
+        if (element.isDirectory()) {
+            return false;
+        }
+        if (patterns == null) {
+            patterns = new PatternSet()
+                    .include(includes.get())
+                    .exclude(excludes.get())
+                    .getAsSpec();
+        }
+        return patterns.isSatisfiedBy(element);
+    }
+}
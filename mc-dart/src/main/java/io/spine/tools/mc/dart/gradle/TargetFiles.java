@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_READ;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_WRITTEN;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.FILES_REWRITTEN;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.FILES_SCANNED;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+
+/**
+ * Utilities for writing the files which mc-dart places into the target directories.
+ *
+ * <p>A target file may be a {@linkplain CopyStrategy#LINK hard link} to a generated file.
+ * Such a file is never modified in place. It is deleted and written anew, so that
+ * the generated file stays intact.
+ */
+final class TargetFiles {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private TargetFiles() {
+    }
+
+    /**
+     * Writes the given content to the target file creating its parent directories if needed.
+     *
+     * <p>If {@code onlyIfChanged} is {@code true} and the target already exists with the same
+     * content, the target, including its modification time, stays untouched.
+     *
+     * <p>An existing target is replaced rather than overwritten, which breaks a hard link
+     * the target might be.
+     *
+     * @return {@code true} if the target is written, {@code false} if it stays untouched
+     */
+    @CanIgnoreReturnValue
+    static boolean write(Path target, byte[] content, boolean onlyIfChanged) {
+        try {
+            if (onlyIfChanged && sameContent(target, content)) {
+                log.atFine().log("The file `%s` is up-to-date.", target);
+                return false;
+            }
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(target);
+            Files.write(target, content);
+            return true;
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Places the given file to the target location as-is.
+     *
+     * <p>Depending on the given strategy, either copies the file or creates a hard link to it.
+     * If creating a link fails, the file is copied.
+     *
+     * <p>Follows the same rules of writing only changed files as
+     * {@link #write(Path, byte[], boolean) write(..)}. A target which is already a link
+     * to the given file is up-to-date.
+     *
+     * @return {@code true} if the target is written or linked, {@code false} if it
+     *         stays untouched
+     */
+    @CanIgnoreReturnValue
+    static boolean copy(Path source, Path target, boolean onlyIfChanged, CopyStrategy strategy) {
+        if (strategy == CopyStrategy.LINK) {
+            var linked = link(source, target, onlyIfChanged);
+            if (linked != Link.FAILED) {
+                return linked == Link.CREATED;
+            }
+        }
+        log.atFine().log("Copying the file `%s`.", target);
+        byte[] content;
+        try {
+            content = Files.readAllBytes(source);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+        return write(target, content, onlyIfChanged);
+    }
+
+    /**
+     * Places the given file to the target location as-is and counts the work done in
+     * the given report.
+     *
+     * @see #copy(Path, Path, boolean, CopyStrategy)
+     */
+    static void copy(Path source,
+                     Path target,
+                     boolean onlyIfChanged,
+                     CopyStrategy strategy,
+                     TaskReport report) {
+        var written = copy(source, target, onlyIfChanged, strategy);
+        report.increment(FILES_SCANNED);
+        try {
+            var size = Files.size(source);
+            var linked = Files.isSameFile(source, target);
+            if (!linked) {
+                report.add(BYTES_READ, size);
+            }
+            if (written) {
+                report.increment(FILES_REWRITTEN);
+                if (!linked) {
+                    report.add(BYTES_WRITTEN, size);
+                }
+            }
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Creates a hard link to the given file at the target location.
+     */
+    private static Link link(Path source, Path target, boolean onlyIfChanged) {
+        try {
+            if (Files.exists(target)) {
+                if (Files.isSameFile(source, target)) {
+                    log.atFine().log("The file `%s` is up-to-date.", target);
+                    return Link.UP_TO_DATE;
+                }
+                if (onlyIfChanged && sameContent(target, source)) {
+                    log.atFine().log("The file `%s` is up-to-date.", target);
+                    return Link.UP_TO_DATE;
+                }
+            }
+            log.atFine().log("Linking the file `%s`.", target);
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(target);
+            Files.createLink(target, source);
+            return Link.CREATED;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            log.atFine().withCause(e).log("Cannot link the file `%s`.", target);
+            return Link.FAILED;
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static boolean sameContent(Path file, Path other) throws IOException {
+        if (Files.size(file) != Files.size(other)) {
+            return false;
+        }
+        return Arrays.equals(Files.readAllBytes(file), Files.readAllBytes(other));
+    }
+
+    private static boolean sameContent(Path file, byte[] content) throws IOException {
+        if (!Files.exists(file) || Files.size(file) != content.length) {
+            return false;
+        }
+        return Arrays.equals(Files.readAllBytes(file), content);
+    }
+
+    /**
+     * Deletes the target file of a generated file which no longer exists.
+     */
+    static void delete(Path target) {
+        log.atFine().log("Deleting the file `%s`.", target);
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * The outcome of an attempt to link a file.
+     */
+    private enum Link {
+
+        /**
+         * The link is created.
+         */
+        CREATED,
+
+        /**
+         * The target is up-to-date and stays untouched.
+         */
+        UP_TO_DATE,
+
+        /**
+         * The link cannot be created.
+         */
+        FAILED
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.base.Stopwatch;
+import org.gradle.api.Task;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.provider.Provider;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The performance report of a task of mc-dart.
+ *
+ * <p>The report consists of the {@linkplain Counter counters} of the work done by the task
+ * and of the wall time of the stages of the task.
+ *
+ * <p>The report is {@linkplain #write(Path, Task, Class, String, boolean) written} as a JSON
+ * object. For example:
+ * <pre>{@code
+ * {
+ *   "task": ":model:resolveImports",
+ *   "type": "ResolveImports",
+ *   "sourceSet": "main",
+ *   "incremental": true,
+ *   "finished": "2022-06-01T12:00:00Z",
+ *   "filesScanned": 120,
+ *   "filesRewritten": 3,
+ *   "importsRewritten": 7,
+ *   "bytesRead": 524288,
+ *   "bytesWritten": 12288,
+ *   "wallTimeMillis": 85,
+ *   "stages": {
+ *     "copy": 2,
+ *     "resolve": 80
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>The counters may be updated from several threads. The counters of a work item are passed
+ * to the task through a {@linkplain #store(Path) file}.
+ */
+final class TaskReport {
+
+    private static final String INDENT = "  ";
+    private static final String REPORT_DIR = "reports/mc-dart/";
+    private static final String REPORT_EXTENSION = ".json";
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Map<String, Long> stages = new LinkedHashMap<>();
+    private final Stopwatch wallTime = Stopwatch.createStarted();
+
+    /**
+     * Creates a new report and starts measuring the wall time of the task.
+     */
+    TaskReport() {
+        for (var counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    /**
+     * Obtains the default location of the report of the given task.
+     *
+     * @return {@code build/reports/mc-dart/<task name>.json}
+     */
+    static Provider<RegularFile> defaultFile(ProjectLayout layout, String taskName) {
+        return layout.getBuildDirectory()
+                     .file(REPORT_DIR + taskName + REPORT_EXTENSION);
+    }
+
+    /**
+     * Adds the given value to the counter.
+     */
+    void add(Counter counter, long value) {
+        counters.get(counter).add(value);
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    void increment(Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    /**
+     * Obtains the value of the counter.
+     */
+    long get(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * Performs the given stage of the task and records its wall time.
+     *
+     * <p>If the stage is performed several times, the time is summed up.
+     */
+    void time(String stage, Runnable action) {
+        time(stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Performs the given stage of the task and records its wall time.
+     *
+     * <p>If the stage is performed several times, the time is summed up.
+     *
+     * @return the result of the stage
+     */
+    <T> T time(String stage, Supplier<T> action) {
+        var stopwatch = Stopwatch.createStarted();
+        try {
+            return action.get();
+        } finally {
+            var elapsed = stopwatch.elapsed(MILLISECONDS);
+            synchronized (stages) {
+                stages.merge(stage, elapsed, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Stores the counters in the given file.
+     */
+    void store(Path file) {
+        var properties = new Properties();
+        counters.forEach((counter, value) ->
+                                 properties.setProperty(counter.key, String.valueOf(value.sum())));
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, UTF_8)) {
+                properties.store(writer, null);
+            }
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Adds the counters {@linkplain #store(Path) stored} in the given file to this report.
+     *
+     * <p>Does nothing if the file does not exist.
+     */
+    void addStored(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+        for (var counter : Counter.values()) {
+            var value = properties.getProperty(counter.key);
+            if (value != null) {
+                add(counter, Long.parseLong(value));
+            }
+        }
+    }
+
+    /**
+     * Writes the report into the given file.
+     *
+     * @param file
+     *         the file to write
+     * @param task
+     *         the reported task
+     * @param type
+     *         the type of the task
+     * @param sourceSet
+     *         the name of the source set processed by the task
+     * @param incremental
+     *         tells if the task has processed only the changed files
+     */
+    void write(Path file,
+               Task task,
+               Class<? extends Task> type,
+               String sourceSet,
+               boolean incremental) {
+        checkNotNull(file);
+        var json = new StringBuilder("{\n");
+        property(json, "task", task.getPath());
+        property(json, "type", type.getSimpleName());
+        property(json, "sourceSet", sourceSet);
+        property(json, "incremental", incremental);
+        property(json, "finished", Instant.now().toString());
+        counters.forEach((counter, value) -> property(json, counter.key, value.sum()));
+        property(json, "wallTimeMillis", wallTime.elapsed(MILLISECONDS));
+        json.append(INDENT).append(quoted("stages")).append(": {");
+        synchronized (stages) {
+            var separator = "\n";
+            for (var stage : stages.entrySet()) {
+                json.append(separator)
+                    .append(INDENT).append(INDENT)
+                    .append(quoted(stage.getKey())).append(": ").append(stage.getValue());
+                separator = ",\n";
+            }
+            if (!stages.isEmpty()) {
+                json.append('\n').append(INDENT);
+            }
+        }
+        json.append("}\n}\n");
+        TargetFiles.write(file, json.toString().getBytes(UTF_8), false);
+    }
+
+    private static void property(StringBuilder json, String name, Object value) {
+        json.append(INDENT)
+            .append(quoted(name))
+            .append(": ");
+        if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            json.append(quoted(String.valueOf(value)));
+        }
+        json.append(",\n");
+    }
+
+    private static String quoted(String value) {
+        var result = new StringBuilder("\"");
+        for (var c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                default:
+                    if (c < ' ') {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    /**
+     * A counter of the work done by a task.
+     */
+    enum Counter {
+
+        /**
+         * The number of the files read by the task.
+         */
+        FILES_SCANNED("filesScanned"),
+
+        /**
+         * The number of the files written by the task.
+         *
+         * <p>The files which are up-to-date and stay untouched are not counted.
+         */
+        FILES_REWRITTEN("filesRewritten"),
+
+        /**
+         * The number of the imports changed by the task.
+         */
+        IMPORTS_REWRITTEN("importsRewritten"),
+
+        /**
+         * The number of bytes read by the task.
+         */
+        BYTES_READ("bytesRead"),
+
+        /**
+         * The number of bytes written by the task.
+         */
+        BYTES_WRITTEN("bytesWritten");
+
+        private final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+    }
+}
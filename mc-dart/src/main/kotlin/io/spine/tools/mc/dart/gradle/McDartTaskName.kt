@@ -37,16 +37,31 @@ public class McDartTaskName(value: String, ssn: SourceSetName) : TaskWithSourceS
     public companion object {
 
         /**
-         * Copies the Dart code generated from Protobuf from its temporary location to
+         * Generates Dart code from the Protobuf definitions of the given source set.
+         *
+         * The task runs only if mc-dart runs `protoc` on its own.
+         * See [McDartOptions.getRunProtoc].
+         */
+        @JvmStatic
+        public fun generateDart(ssn: SourceSetName): TaskName =
+            McDartTaskName("generate${ssn.toInfix()}Dart", ssn)
+
+        /**
+         * Copies the files generated from Protobuf from their temporary location to
          * the directory corresponding the given source set.
+         *
+         * The Dart files, which require import resolution, are placed into the directory
+         * by the [resolveImports] task.
+         *
+         * Only the files changed since the previous run are copied.
          */
         @JvmStatic
         public fun copyGeneratedDart(ssn: SourceSetName): TaskName =
             McDartTaskName("copy${ssn.toInfix()}GeneratedDart", ssn)
 
         /**
-         * Rewrites the Dart source files generated from Protobuf with
-         * the resolved absolute imports.
+         * Writes the Dart source files generated from Protobuf with the resolved absolute
+         * imports into the directory corresponding the given source set.
          */
         @JvmStatic
         public fun resolveImports(ssn: SourceSetName): TaskName =
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`DartOutputCache` should")
+class DartOutputCacheTest {
+
+    private static final String FILE = "spine/test/task.pb.dart";
+
+    @Test
+    @DisplayName("restore the stored files")
+    void storeAndRestore(@TempDir Path cacheDir,
+                         @TempDir Path outputDir,
+                         @TempDir Path restoredDir) throws IOException {
+        var cache = new DartOutputCache(cacheDir, Long.MAX_VALUE);
+        write(outputDir, FILE, "class Task {}");
+
+        cache.store(key("task"), outputDir, List.of(FILE));
+
+        assertThat(cache.restore(key("task"), restoredDir)).isTrue();
+        assertThat(Files.readString(restoredDir.resolve(FILE), UTF_8))
+                .isEqualTo("class Task {}");
+    }
+
+    @Test
+    @DisplayName("report a miss for an unknown key")
+    void miss(@TempDir Path cacheDir, @TempDir Path outputDir) {
+        var cache = new DartOutputCache(cacheDir, Long.MAX_VALUE);
+
+        assertThat(cache.restore(key("task"), outputDir)).isFalse();
+    }
+
+    @Test
+    @DisplayName("evict the least recently used entries")
+    void evict(@TempDir Path cacheDir, @TempDir Path outputDir) throws IOException {
+        var cache = new DartOutputCache(cacheDir, 10);
+        write(outputDir, FILE, "0123456789");
+        cache.store(key("old"), outputDir, List.of(FILE));
+        cache.store(key("new"), outputDir, List.of(FILE));
+        Files.setLastModifiedTime(cacheDir.resolve(key("old").toString()),
+                                  FileTime.fromMillis(1_000));
+
+        cache.evict();
+
+        assertThat(cache.restore(key("old"), outputDir)).isFalse();
+        assertThat(cache.restore(key("new"), outputDir)).isTrue();
+    }
+
+    private static HashCode key(String value) {
+        return Hashing.sha256().hashString(value, UTF_8);
+    }
+
+    private static void write(Path dir, String file, String content) throws IOException {
+        var path = dir.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content, UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.protobuf.gradle.GenerateProtoTask;
+import org.gradle.api.Task;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.tools.code.SourceSetName.main;
+import static io.spine.tools.code.SourceSetName.test;
+import static io.spine.tools.gradle.ProtocPluginName.dart;
+import static io.spine.tools.gradle.task.ProtobufTaskName.generateProto;
+import static io.spine.tools.mc.dart.gradle.McDartTaskName.generateDart;
+
+@DisplayName("`GenerateDartTask` should")
+class GenerateDartTaskTest {
+
+    private static final String GRPC = "grpc";
+
+    @Test
+    @DisplayName("depend on the extraction of `.proto` files rather than on `generateProto`")
+    void dependOnExtraction(@TempDir File dir) {
+        var project = newProject(dir);
+        project.evaluate();
+
+        var tasks = project.getTasks();
+        var generateDart = tasks.getByName(generateDart(test).name());
+        var dependencies = generateDart.getTaskDependencies()
+                                       .getDependencies(generateDart)
+                                       .stream()
+                                       .map(Task::getName)
+                                       .collect(toImmutableSet());
+        assertThat(dependencies).containsAtLeast("extractTestProto",
+                                                 "extractIncludeTestProto",
+                                                 "extractProto");
+        assertThat(dependencies).doesNotContain(generateProto(test).name());
+        assertThat(dependencies).doesNotContain(generateProto(main).name());
+    }
+
+    @Test
+    @DisplayName("pass the options of the Dart plugin to `generateDart` when running `protoc`")
+    void passPluginOptions(@TempDir File dir) {
+        var project = newProject(dir);
+        project.evaluate();
+
+        var tasks = project.getTasks();
+        var generateProto = (GenerateProtoTask) tasks.getByName(generateProto(main).name());
+        assertThat(generateProto.getPlugins().findByName(dart.name())).isNull();
+        var generateDart = (GenerateDart) tasks.getByName(generateDart(main).name());
+        assertThat(generateDart.getPluginOptions().get()).containsExactly(GRPC);
+    }
+
+    /**
+     * Creates a project in which mc-dart runs {@code protoc} with the Dart plugin having
+     * the {@code grpc} option.
+     */
+    private static ProjectInternal newProject(File dir) {
+        var project = (ProjectInternal) ProjectBuilder.builder()
+                .withProjectDir(dir)
+                .build();
+        project.apply(action -> action.plugin("java"));
+        project.apply(action -> action.plugin(ProtobufSetup.PLUGIN_ID));
+        ProtobufSetup.of(project).configureTasks(
+                task -> task.getPlugins().maybeCreate(dart.name()).option(GRPC)
+        );
+        new McDartPlugin().apply(project);
+        Projects.getMcDart(project).getRunProtoc().set(true);
+        return project;
+    }
+}
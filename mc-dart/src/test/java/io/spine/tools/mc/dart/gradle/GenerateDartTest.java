@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.tools.mc.dart.gradle.GenerateDart.deleteGenerated;
+import static io.spine.tools.mc.dart.gradle.GenerateDart.generatedFiles;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`GenerateDart` should")
+class GenerateDartTest {
+
+    private static final String SERVICE = "spine/test/service.proto";
+    private static final List<String> SERVICE_FILES = List.of(
+            "spine/test/service.pb.dart",
+            "spine/test/service.pbenum.dart",
+            "spine/test/service.pbgrpc.dart",
+            "spine/test/service.pbjson.dart"
+    );
+    private static final String OTHER_FILE = "spine/test/service.pbx.pb.dart";
+
+    @Test
+    @DisplayName("delete all the files generated for a service with the `grpc` option")
+    void deleteService(@TempDir Path outputDir) throws IOException {
+        writeService(outputDir);
+
+        deleteGenerated(outputDir, SERVICE);
+
+        for (var file : SERVICE_FILES) {
+            assertThat(Files.exists(outputDir.resolve(file))).isFalse();
+        }
+        assertThat(Files.exists(outputDir.resolve(OTHER_FILE))).isTrue();
+    }
+
+    @Test
+    @DisplayName("cache all the files generated for a service with the `grpc` option")
+    void cacheService(@TempDir Path cacheDir,
+                      @TempDir Path outputDir,
+                      @TempDir Path restoredDir) throws IOException {
+        writeService(outputDir);
+        var cache = new DartOutputCache(cacheDir, Long.MAX_VALUE);
+        var key = Hashing.sha256().hashString(SERVICE, UTF_8);
+        var files = generatedFiles(outputDir, SERVICE)
+                .stream()
+                .map(path -> outputDir.relativize(path).toString())
+                .collect(Collectors.toList());
+
+        cache.store(key, outputDir, files);
+
+        assertThat(cache.restore(key, restoredDir)).isTrue();
+        assertThat(relativePaths(restoredDir, generatedFiles(restoredDir, SERVICE)))
+                .containsExactlyElementsIn(SERVICE_FILES);
+        assertThat(Files.exists(restoredDir.resolve(OTHER_FILE))).isFalse();
+    }
+
+    private static void writeService(Path outputDir) throws IOException {
+        for (var file : SERVICE_FILES) {
+            write(outputDir, file);
+        }
+        write(outputDir, OTHER_FILE);
+    }
+
+    private static void write(Path dir, String file) throws IOException {
+        var path = dir.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, "// " + file, UTF_8);
+    }
+
+    private static List<String> relativePaths(Path dir, List<Path> files) {
+        return files.stream()
+                    .map(file -> dir.relativize(file)
+                                    .toString()
+                                    .replace(dir.getFileSystem().getSeparator(), "/"))
+                    .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.tools.mc.dart.gradle.GeneratedDartFiles.generatedFor;
+import static io.spine.tools.mc.dart.gradle.GeneratedDartFiles.protoFileOf;
+
+@DisplayName("`GeneratedDartFiles` should")
+class GeneratedDartFilesTest {
+
+    @Test
+    @DisplayName("list the files generated for a `.proto` file")
+    void listGenerated() {
+        assertThat(generatedFor("spine/test/task.proto")).containsExactly(
+                "spine/test/task.pb.dart",
+                "spine/test/task.pbenum.dart",
+                "spine/test/task.pbjson.dart",
+                "spine/test/task.pbserver.dart",
+                "spine/test/task.pbgrpc.dart"
+        );
+    }
+
+    @Test
+    @DisplayName("not claim the files of a `.proto` file with a longer name")
+    void notClaimLongerName() {
+        assertThat(generatedFor("spine/test/task.proto"))
+                .doesNotContain("spine/test/task.pbx.pb.dart");
+        assertThat(protoFileOf("spine/test/task.pbx.pb.dart"))
+                .hasValue("spine/test/task.pbx.proto");
+    }
+
+    @Test
+    @DisplayName("find the `.proto` file of a generated file")
+    void findProto() {
+        assertThat(protoFileOf("spine/test/task.pb.dart")).hasValue("spine/test/task.proto");
+        assertThat(protoFileOf("spine/test/task.pbenum.dart")).hasValue("spine/test/task.proto");
+        assertThat(protoFileOf("spine/test/task.pbjson.dart")).hasValue("spine/test/task.proto");
+        assertThat(protoFileOf("spine/test/task.pbserver.dart"))
+                .hasValue("spine/test/task.proto");
+        assertThat(protoFileOf("spine/test/task.pbgrpc.dart")).hasValue("spine/test/task.proto");
+    }
+
+    @Test
+    @DisplayName("not find the `.proto` file of a file of another kind")
+    void notFindProto() {
+        assertThat(protoFileOf("spine/test/task.dart")).isEmpty();
+        assertThat(protoFileOf("spine/test/task.pbx.dart")).isEmpty();
+        assertThat(protoFileOf("spine.pb/readme.dart")).isEmpty();
+        assertThat(protoFileOf("spine/test/.pb.dart")).isEmpty();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.spine.tools.dart.fs.DartFile;
+import io.spine.tools.fs.ExternalModules;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`ImportResolver` should")
+class ImportResolverTest {
+
+    private static final Path LIB = Path.of("project", "lib");
+    private static final Path FILE = LIB.resolve("company/client/file.pb.dart");
+
+    private final ImportResolver resolver = new ImportResolver(
+            LIB,
+            ModuleIndex.of(ImmutableMap.of(
+                    "server", ImmutableList.of("company/server/*"),
+                    "types", ImmutableList.of("google/protobuf")
+            )),
+            true,
+            CopyStrategy.COPY
+    );
+
+    @Test
+    @DisplayName("replace relative imports of the files provided by modules")
+    void replace() {
+        var content = "import 'dart:core' as $core;\n"
+                + "import '../server/nested/file.pb.dart' as $0;\n"
+                + "import \"../../google/protobuf/any.pb.dart\" as $1;\n";
+        var expected = "import 'dart:core' as $core;\n"
+                + "import 'package:server/company/server/nested/file.pb.dart' as $0;\n"
+                + "import \"package:types/google/protobuf/any.pb.dart\" as $1;\n";
+
+        assertThat(resolver.resolve(content, FILE)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("keep other imports and code as is")
+    void keep() {
+        var content = "import 'package:protobuf/protobuf.dart' as $pb;\n"
+                + "import 'other.pb.dart' as $0;\n"
+                + "export 'file.pbenum.dart';\n"
+                + "// import '../server/file.pb.dart';\n";
+
+        assertThat(resolver.resolve(content, FILE)).isEqualTo(content);
+    }
+
+    @Nested
+    @DisplayName("resolve imports the same way as `DartFile`")
+    class SameAsDartFile {
+
+        private final ImmutableMap<String, List<String>> modules = ImmutableMap.of(
+                "server", ImmutableList.of("company/server/*"),
+                "client", ImmutableList.of("company/client"),
+                "types", ImmutableList.of("google/protobuf/*")
+        );
+
+        @TempDir
+        @SuppressWarnings("PackageVisibleField") // Set by JUnit.
+        Path lib;
+
+        @Test
+        @DisplayName("in a message file")
+        void messages() throws IOException {
+            assertSameAsDartFile("company/client/tasks.pb.dart",
+                                 "///",
+                                 "//  Generated code. Do not modify.",
+                                 "//  source: company/client/tasks.proto",
+                                 "//",
+                                 "",
+                                 "import 'dart:core' as $core;",
+                                 "",
+                                 "import 'package:fixnum/fixnum.dart' as $fixnum;",
+                                 "import 'package:protobuf/protobuf.dart' as $pb;",
+                                 "",
+                                 "import '../server/nested/task.pb.dart' as $0;",
+                                 "import '../../google/protobuf/timestamp.pb.dart' as $1;",
+                                 "import 'tasks.pbenum.dart' as $2;",
+                                 "import '../shared/ids.pb.dart' as $3;",
+                                 "",
+                                 "export 'tasks.pbenum.dart';",
+                                 "",
+                                 "class Task extends $pb.GeneratedMessage {}");
+        }
+
+        @Test
+        @DisplayName("in a service file")
+        void service() throws IOException {
+            assertSameAsDartFile("company/server/nested/task.pbserver.dart",
+                                 "import 'dart:async' as $async;",
+                                 "import 'package:protobuf/protobuf.dart' as $pb;",
+                                 "import 'dart:core' as $core;",
+                                 "import 'task.pb.dart' as $0;",
+                                 "import '../../client/tasks.pb.dart' as $1;",
+                                 "import '../../../google/protobuf/empty.pb.dart' as $2;",
+                                 "export 'task.pb.dart';");
+        }
+
+        @Test
+        @DisplayName("in a file at the root of `lib`")
+        void root() throws IOException {
+            assertSameAsDartFile("root.pbjson.dart",
+                                 "import 'dart:convert' as $convert;",
+                                 "import 'company/server/a.pbjson.dart' as $0;",
+                                 "import 'company/client/b.pbjson.dart' as $1;",
+                                 "import 'company/client/nested/c.pbjson.dart' as $2;",
+                                 "import 'other.pbjson.dart' as $3;");
+        }
+
+        private void assertSameAsDartFile(String path, String... lines) throws IOException {
+            var file = lib.resolve(path);
+            Files.createDirectories(file.getParent());
+            var content = String.join("\n", lines) + '\n';
+            Files.writeString(file, content, UTF_8);
+
+            var resolver = new ImportResolver(lib, ModuleIndex.of(modules),
+                                              false, CopyStrategy.COPY);
+            var resolved = resolver.resolve(content, file)
+                                   .lines()
+                                   .collect(toImmutableList());
+            DartFile.read(file)
+                    .resolveImports(lib, new ExternalModules(modules));
+            var expected = Files.readAllLines(file, UTF_8);
+
+            assertThat(resolved).containsExactlyElementsIn(expected).inOrder();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`McDartEvents` should")
+class McDartEventsTest {
+
+    private static final String PREFIX = "io.spine.tools.mc.dart.";
+
+    @Test
+    @DisplayName("record the processing of a Dart file")
+    void recordFileEvents(@TempDir Path dir) throws IOException {
+        var lib = dir.resolve("lib");
+        var generated = dir.resolve("generated/company/client/file.pb.dart");
+        var target = lib.resolve("company/client/file.pb.dart");
+        Files.createDirectories(generated.getParent());
+        Files.writeString(generated,
+                          "import '../server/file.pb.dart' as $0;\n"
+                                  + "import 'dart:core' as $core;\n",
+                          UTF_8);
+        var resolver = new ImportResolver(
+                lib,
+                ModuleIndex.of(ImmutableMap.of("server", ImmutableList.of("company/server"))),
+                false,
+                CopyStrategy.COPY
+        );
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable(PREFIX + "ReadFile");
+            recording.enable(PREFIX + "ResolveFile");
+            recording.enable(PREFIX + "WriteFile");
+            recording.start();
+            resolver.resolve(generated, target, new TaskReport());
+            recording.stop();
+            var dump = dir.resolve("recording.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump);
+        }
+
+        var resolve = event(events, "ResolveFile");
+        assertThat(resolve.getString("path")).isEqualTo(target.toString());
+        assertThat(resolve.getInt("imports")).isEqualTo(2);
+        assertThat(resolve.getInt("rewritten")).isEqualTo(1);
+        assertThat(event(events, "ReadFile").getLong("size"))
+                .isEqualTo(Files.size(generated));
+        assertThat(event(events, "WriteFile").getBoolean("written")).isTrue();
+    }
+
+    private static RecordedEvent event(List<RecordedEvent> events, String name) {
+        return events.stream()
+                     .filter(event -> event.getEventType().getName().equals(PREFIX + name))
+                     .findFirst()
+                     .orElseThrow();
+    }
+}
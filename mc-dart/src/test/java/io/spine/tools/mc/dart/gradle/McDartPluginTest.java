@@ -39,8 +39,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.util.List;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
 import static io.spine.tools.code.SourceSetName.main;
 import static io.spine.tools.code.SourceSetName.test;
 import static io.spine.tools.gradle.task.BaseTaskName.assemble;
@@ -72,6 +74,7 @@ class McDartPluginTest {
         @DisplayName("`copyGeneratedDart`")
         void createMainTask() {
             var task = findTask(copyGeneratedDart(main));
+            assertThat(task).isInstanceOf(CopyGeneratedDart.class);
             assertThat(task.getDependsOn()).isNotEmpty();
 
             var assembleTask = findTask(assemble);
@@ -91,15 +94,78 @@ class McDartPluginTest {
         @Test
         @DisplayName("`resolveImports`")
         void createResolveTask() {
-            findTask(resolveImports(main));
+            var task = findTask(resolveImports(main));
+            assertThat(task).isInstanceOf(ResolveImports.class);
+            assertThat(task.getDependsOn()).contains(copyGeneratedDart(main).name());
+
+            var assembleTask = findTask(assemble);
+            assertThat(assembleTask.getDependsOn()).contains(task.getName());
         }
 
-        @CanIgnoreReturnValue
-        private Task findTask(TaskName name) {
-            var task = project.getTasks()
-                              .findByName(name.name());
-            assertThat(task).isNotNull();
-            return task;
+    }
+
+    @Test
+    @DisplayName("take into account options configured after the plugin is applied")
+    void configureLazily(@TempDir File libDir) {
+        var options = Projects.getMcDart(project);
+        var defaultLibDir = options.getLibDir().get();
+        options.getLibDir().set(libDir);
+        try {
+            var task = (ResolveImports) findTask(resolveImports(main));
+            assertThat(task.getTargetDir().getAsFile().get()).isEqualTo(libDir);
+        } finally {
+            options.getLibDir().set(defaultLibDir);
         }
     }
+
+    @Test
+    @DisplayName("resolve imports of all source sets against the `lib` directory")
+    void resolveAgainstLib() {
+        var libDir = Projects.getMcDart(project).getLibDir().get().getAsFile();
+        var mainTask = (ResolveImports) findTask(resolveImports(main));
+        var testTask = (ResolveImports) findTask(resolveImports(test));
+
+        assertThat(mainTask.getLibDir().getAsFile().get()).isEqualTo(libDir);
+        assertThat(testTask.getLibDir().getAsFile().get()).isEqualTo(libDir);
+        assertThat(testTask.getTargetDir().getAsFile().get()).isNotEqualTo(libDir);
+    }
+
+    @Test
+    @DisplayName("skip copying if it is fused with the import resolution")
+    void skipFusedCopy() {
+        var options = Projects.getMcDart(project);
+        var task = findTask(copyGeneratedDart(main));
+        assertThat(task.getOnlyIf().isSatisfiedBy(task)).isTrue();
+
+        options.getFuseCopy().set(true);
+        try {
+            assertThat(task.getOnlyIf().isSatisfiedBy(task)).isFalse();
+        } finally {
+            options.getFuseCopy().set(false);
+        }
+    }
+
+    @Test
+    @DisplayName("resolve overlapping module patterns in the order of declaration")
+    void keepModuleOrder() {
+        var options = Projects.getMcDart(project);
+        options.modules.put("zeta", List.of("company/*"));
+        options.modules.put("alpha", List.of("company/*"));
+        try {
+            var task = (ResolveImports) findTask(resolveImports(main));
+            var modules = task.getModules().get();
+            assertThat(modules.keySet()).containsExactly("zeta", "alpha").inOrder();
+            assertThat(ModuleIndex.of(modules).moduleFor("company/client")).hasValue("zeta");
+        } finally {
+            options.modules.clear();
+        }
+    }
+
+    @CanIgnoreReturnValue
+    private static Task findTask(TaskName name) {
+        var task = project.getTasks()
+                          .findByName(name.name());
+        assertThat(task).isNotNull();
+        return task;
+    }
 }
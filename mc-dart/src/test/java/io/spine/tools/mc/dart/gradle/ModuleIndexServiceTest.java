@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableMap;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+
+@DisplayName("`ModuleIndexService` should")
+class ModuleIndexServiceTest {
+
+    @Test
+    @DisplayName("compile the index once for equal maps of modules")
+    void shareIndex(@TempDir File dir) {
+        var service = newService(dir);
+        var modules = ImmutableMap.of(
+                "spine_client", List.of("spine/client/*"),
+                "spine_core", List.of("spine/core")
+        );
+
+        var index = service.index(modules);
+
+        assertThat(service.index(ImmutableMap.copyOf(modules))).isSameInstanceAs(index);
+    }
+
+    @Test
+    @DisplayName("tell apart the maps with different order of modules")
+    void respectOrder(@TempDir File dir) {
+        var service = newService(dir);
+        var first = ImmutableMap.of(
+                "a", List.of("spine/*"),
+                "b", List.of("spine/*")
+        );
+        var second = ImmutableMap.of(
+                "b", List.of("spine/*"),
+                "a", List.of("spine/*")
+        );
+
+        assertThat(service.index(first).moduleFor("spine")).hasValue("a");
+        assertThat(service.index(second).moduleFor("spine")).hasValue("b");
+    }
+
+    private static ModuleIndexService newService(File dir) {
+        var project = ProjectBuilder.builder()
+                .withProjectDir(dir)
+                .build();
+        return ModuleIndexService.register(project).get();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth8.assertThat;
+
+@DisplayName("`ModuleIndex` should")
+class ModuleIndexTest {
+
+    @Test
+    @DisplayName("match an exact pattern only to the directory itself")
+    void exact() {
+        var index = ModuleIndex.of(ImmutableMap.of("client", ImmutableList.of("company/client")));
+
+        assertThat(index.moduleFor("company/client")).hasValue("client");
+        assertThat(index.moduleFor("company/client/nested")).isEmpty();
+        assertThat(index.moduleFor("company")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("match a recursive pattern to the directory and its subdirectories")
+    void recursive() {
+        var index = ModuleIndex.of(ImmutableMap.of("server", ImmutableList.of("company/server/*")));
+
+        assertThat(index.moduleFor("company/server")).hasValue("server");
+        assertThat(index.moduleFor("company/server/nested/deeper")).hasValue("server");
+        assertThat(index.moduleFor("company/service")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("prefer an exact pattern to a recursive one")
+    void preferExact() {
+        var index = ModuleIndex.of(ImmutableMap.of(
+                "all", ImmutableList.of("company/*"),
+                "client", ImmutableList.of("company/client")
+        ));
+
+        assertThat(index.moduleFor("company/client")).hasValue("client");
+        assertThat(index.moduleFor("company/client/nested")).hasValue("all");
+    }
+
+    @Test
+    @DisplayName("prefer a longer recursive pattern")
+    void preferLonger() {
+        var index = ModuleIndex.of(ImmutableMap.of(
+                "server", ImmutableList.of("company/server/*"),
+                "all", ImmutableList.of("company/*")
+        ));
+
+        assertThat(index.moduleFor("company/server/nested")).hasValue("server");
+        assertThat(index.moduleFor("company/client")).hasValue("all");
+    }
+
+    @Test
+    @DisplayName("prefer the module declared first for the same pattern")
+    void preferFirst() {
+        var index = ModuleIndex.of(ImmutableMap.of(
+                "first", ImmutableList.of("company/client"),
+                "second", ImmutableList.of("company/client")
+        ));
+
+        assertThat(index.moduleFor("company/client")).hasValue("first");
+    }
+}
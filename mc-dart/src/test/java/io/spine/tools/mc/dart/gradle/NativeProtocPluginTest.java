@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`NativeProtocPlugin` should")
+class NativeProtocPluginTest {
+
+    private static final ImmutableList<String> PUB_SCRIPT = ImmutableList.of(
+            "#!/usr/bin/env sh",
+            "# This file was created by pub v2.18.0.",
+            "# Package: protoc_plugin",
+            "# Version: 20.0.1",
+            "# Executable: protoc-gen-dart",
+            "# Script: protoc_plugin",
+            "dart pub global run protoc_plugin:protoc_plugin \"$@\""
+    );
+
+    private static final String SDK_VERSION = "2.18.0";
+
+    @TempDir
+    @SuppressWarnings("PackageVisibleField") // Set by JUnit.
+    Path dir;
+
+    @Test
+    @DisplayName("find the entry point of a pub script")
+    void pubScript() throws IOException {
+        var pubCache = dir.resolve("pub-cache");
+        var script = write(pubCache.resolve("bin/protoc-gen-dart"), PUB_SCRIPT);
+        var entryPoint = write(
+                pubCache.resolve("hosted/pub.dev/protoc_plugin-20.0.1/bin/protoc_plugin.dart"),
+                ImmutableList.of("void main() {}")
+        );
+        var packageConfig = write(
+                pubCache.resolve("global_packages/protoc_plugin/.dart_tool/package_config.json"),
+                ImmutableList.of("{}")
+        );
+        var cacheDir = dir.resolve("cache");
+
+        var plugin = NativeProtocPlugin.of(script, cacheDir, SDK_VERSION);
+
+        assertThat(plugin).isPresent();
+        var nativePlugin = plugin.get();
+        assertThat(nativePlugin.entryPoint()).isEqualTo(entryPoint);
+        assertThat(nativePlugin.packageConfig()).hasValue(packageConfig);
+        assertThat(nativePlugin.version()).isEqualTo("protoc_plugin-20.0.1");
+        assertThat(nativePlugin.executable().getParent().getParent())
+                .isEqualTo(cacheDir.resolve("protoc_plugin-20.0.1"));
+    }
+
+    @Test
+    @DisplayName("compile a Dart file as is")
+    void dartFile() throws IOException {
+        var entryPoint = write(dir.resolve("protoc_plugin.dart"),
+                               ImmutableList.of("void main() {}"));
+
+        var plugin = NativeProtocPlugin.of(entryPoint, dir.resolve("cache"), SDK_VERSION);
+
+        assertThat(plugin).isPresent();
+        assertThat(plugin.get().entryPoint()).isEqualTo(entryPoint);
+        assertThat(plugin.get().packageConfig()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("not recognize other executables")
+    void otherExecutable() throws IOException {
+        var executable = write(dir.resolve("protoc-gen-dart"),
+                               ImmutableList.of("#!/usr/bin/env sh"));
+
+        assertThat(NativeProtocPlugin.of(executable, dir.resolve("cache"), SDK_VERSION))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("store the executables compiled by different Dart SDKs apart")
+    void separateSdkVersions() throws IOException {
+        var entryPoint = write(dir.resolve("protoc_plugin.dart"),
+                               ImmutableList.of("void main() {}"));
+        var cacheDir = dir.resolve("cache");
+
+        var executable = executable(entryPoint, cacheDir, SDK_VERSION);
+
+        assertThat(executable(entryPoint, cacheDir, SDK_VERSION)).isEqualTo(executable);
+        assertThat(executable(entryPoint, cacheDir, "3.0.0")).isNotEqualTo(executable);
+    }
+
+    @Test
+    @DisplayName("store the executables compiled with different package configurations apart")
+    void separatePackageConfigs() throws IOException {
+        var pubCache = dir.resolve("pub-cache");
+        var script = write(pubCache.resolve("bin/protoc-gen-dart"), PUB_SCRIPT);
+        write(pubCache.resolve("hosted/pub.dev/protoc_plugin-20.0.1/bin/protoc_plugin.dart"),
+              ImmutableList.of("void main() {}"));
+        var packageConfig = pubCache.resolve(
+                "global_packages/protoc_plugin/.dart_tool/package_config.json"
+        );
+        write(packageConfig, ImmutableList.of("{\"packages\": [\"protobuf-2.1.0\"]}"));
+        var cacheDir = dir.resolve("cache");
+        var executable = executable(script, cacheDir, SDK_VERSION);
+
+        write(packageConfig, ImmutableList.of("{\"packages\": [\"protobuf-3.0.0\"]}"));
+
+        assertThat(executable(script, cacheDir, SDK_VERSION)).isNotEqualTo(executable);
+    }
+
+    private static Path executable(Path plugin, Path cacheDir, String sdkVersion) {
+        var nativePlugin = NativeProtocPlugin.of(plugin, cacheDir, sdkVersion);
+        assertThat(nativePlugin).isPresent();
+        return nativePlugin.get().executable();
+    }
+
+    private static Path write(Path file, Iterable<String> lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`OutputDirs` should")
+class OutputDirsTest {
+
+    private static final Path MAIN = Path.of("generated", "main", "dart");
+    private static final Path TEST = Path.of("generated", "test", "dart");
+
+    private final OutputDirs dirs = new OutputDirs(
+            MAIN, ImmutableMap.of("spine/test/task.proto", TEST)
+    );
+
+    @Test
+    @DisplayName("route the generated files to the source set of their `.proto` file")
+    void routeGenerated() {
+        assertThat(dirs.forGenerated("spine/test/task.pb.dart")).isEqualTo(TEST);
+        assertThat(dirs.forGenerated("spine/test/task.pbenum.dart")).isEqualTo(TEST);
+        assertThat(dirs.forGenerated("spine/test/task.pbjson.dart")).isEqualTo(TEST);
+        assertThat(dirs.forGenerated("spine/test/task.pbserver.dart")).isEqualTo(TEST);
+        assertThat(dirs.forGenerated("spine/test/task.pbgrpc.dart")).isEqualTo(TEST);
+    }
+
+    @Test
+    @DisplayName("match the generated files by their exact suffixes")
+    void matchExactSuffix() {
+        assertThat(dirs.forGenerated("spine/test/task.pbx.pb.dart")).isEqualTo(MAIN);
+        assertThat(dirs.forGenerated("spine/test/task.pbx.dart")).isEqualTo(MAIN);
+        assertThat(dirs.forGenerated("spine/test/task.pbenum.g.dart")).isEqualTo(MAIN);
+    }
+
+    @Test
+    @DisplayName("route the files of unknown source sets to the default directory")
+    void routeDefault() {
+        assertThat(dirs.forProto("spine/core/event.proto")).isEqualTo(MAIN);
+        assertThat(dirs.forGenerated("spine/core/event.pb.dart")).isEqualTo(MAIN);
+        assertThat(dirs.forGenerated("spine.pb/readme.dart")).isEqualTo(MAIN);
+    }
+
+    @Test
+    @DisplayName("list all the directories")
+    void all() {
+        assertThat(dirs.all()).containsExactly(MAIN, TEST);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`ProtoImportGraph` should")
+class ProtoImportGraphTest {
+
+    @Test
+    @DisplayName("find the files importing the given ones transitively")
+    void dependents() {
+        var graph = graph();
+
+        assertThat(graph.withDependents(List.of("base.proto")))
+                .containsExactly("base.proto", "entity.proto", "command.proto");
+        assertThat(graph.withDependents(List.of("entity.proto")))
+                .containsExactly("entity.proto", "command.proto");
+        assertThat(graph.withDependents(List.of("other.proto")))
+                .containsExactly("other.proto");
+    }
+
+    @Test
+    @DisplayName("forget the imports of a removed file")
+    void remove() {
+        var graph = graph();
+
+        graph.remove("entity.proto");
+
+        assertThat(graph.withDependents(List.of("base.proto")))
+                .containsExactly("base.proto");
+    }
+
+    @Test
+    @DisplayName("be written to and read from a file")
+    void persist(@TempDir Path dir) {
+        var file = dir.resolve("graph.imports");
+        graph().write(file);
+
+        var graph = ProtoImportGraph.read(file);
+
+        assertThat(graph.withDependents(List.of("base.proto")))
+                .containsExactly("base.proto", "entity.proto", "command.proto");
+    }
+
+    @Test
+    @DisplayName("be empty if the file does not exist")
+    void missingFile(@TempDir Path dir) {
+        var graph = ProtoImportGraph.read(dir.resolve("missing.imports"));
+
+        assertThat(graph.withDependents(List.of("base.proto")))
+                .containsExactly("base.proto");
+    }
+
+    private static ProtoImportGraph graph() {
+        var graph = ProtoImportGraph.empty();
+        graph.update(FileDescriptorSet.newBuilder()
+                             .addFile(file("base.proto"))
+                             .addFile(file("entity.proto", "base.proto"))
+                             .addFile(file("command.proto", "entity.proto", "other.proto"))
+                             .build());
+        return graph;
+    }
+
+    private static FileDescriptorProto file(String name, String... imports) {
+        return FileDescriptorProto.newBuilder()
+                                  .setName(name)
+                                  .addAllDependency(List.of(imports))
+                                  .build();
+    }
+}
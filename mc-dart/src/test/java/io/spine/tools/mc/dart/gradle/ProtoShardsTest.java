@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`ProtoShards` should")
+class ProtoShardsTest {
+
+    @Test
+    @DisplayName("balance shards by the size of files")
+    void balance() {
+        var files = ImmutableMap.of(
+                "a.proto", 100L,
+                "b.proto", 60L,
+                "c.proto", 50L,
+                "d.proto", 40L,
+                "e.proto", 10L
+        );
+
+        var shards = ProtoShards.split(files, 2);
+
+        assertThat(shards).containsExactly(
+                ImmutableList.of("a.proto", "d.proto"),
+                ImmutableList.of("b.proto", "c.proto", "e.proto")
+        ).inOrder();
+    }
+
+    @Test
+    @DisplayName("not produce empty shards")
+    void noEmptyShards() {
+        var files = ImmutableMap.of(
+                "a.proto", 1L,
+                "b.proto", 2L
+        );
+
+        var shards = ProtoShards.split(files, 8);
+
+        assertThat(shards).containsExactly(
+                ImmutableList.of("b.proto"),
+                ImmutableList.of("a.proto")
+        ).inOrder();
+    }
+
+    @Test
+    @DisplayName("not depend on the order of files")
+    void deterministic() {
+        var files = ImmutableMap.of(
+                "b.proto", 10L,
+                "a.proto", 10L,
+                "c.proto", 10L
+        );
+        var reordered = ImmutableMap.of(
+                "c.proto", 10L,
+                "a.proto", 10L,
+                "b.proto", 10L
+        );
+
+        assertThat(ProtoShards.split(files, 2)).isEqualTo(ProtoShards.split(reordered, 2));
+    }
+}
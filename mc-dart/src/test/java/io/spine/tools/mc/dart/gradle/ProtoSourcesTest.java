@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`ProtoSources` should")
+class ProtoSourcesTest {
+
+    @Test
+    @DisplayName("read the imports of a file")
+    void imports(@TempDir Path dir) throws IOException {
+        write(dir, "task.proto",
+              "syntax = \"proto3\";\n"
+                      + "import \"google/protobuf/timestamp.proto\";\n"
+                      + "import public \"spine/base.proto\";\n");
+
+        var sources = new ProtoSources(List.of(dir));
+
+        assertThat(sources.imports("task.proto"))
+                .containsExactly("google/protobuf/timestamp.proto", "spine/base.proto");
+    }
+
+    @Test
+    @DisplayName("change the digest of a file if a transitive import changes")
+    void transitiveDigest(@TempDir Path dir) throws IOException {
+        write(dir, "task.proto", "import \"entity.proto\";");
+        write(dir, "entity.proto", "import \"base.proto\";");
+        write(dir, "base.proto", "message Base {}");
+        var before = new ProtoSources(List.of(dir)).digest("task.proto");
+
+        write(dir, "base.proto", "message Base { string id = 1; }");
+        var after = new ProtoSources(List.of(dir)).digest("task.proto");
+
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("look up files in the order of the proto path")
+    void lookupOrder(@TempDir Path first, @TempDir Path second) throws IOException {
+        write(first, "task.proto", "import \"first.proto\";");
+        write(second, "task.proto", "import \"second.proto\";");
+
+        var sources = new ProtoSources(List.of(first, second));
+
+        assertThat(sources.imports("task.proto"))
+                .containsExactly("first.proto");
+    }
+
+    private static void write(Path dir, String file, String content) throws IOException {
+        Files.writeString(dir.resolve(file), content, UTF_8);
+    }
+}
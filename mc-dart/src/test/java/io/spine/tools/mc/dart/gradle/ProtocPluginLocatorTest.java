@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`ProtocPluginLocator` should")
+class ProtocPluginLocatorTest {
+
+    private static final ImmutableMap<String, String> ENVIRONMENT = ImmutableMap.of(
+            "PATH", "/usr/bin:/home/user/.pub-cache/bin",
+            "PUB_CACHE", "/home/user/.pub-cache",
+            "HOME", "/home/user"
+    );
+
+    @TempDir
+    @SuppressWarnings("PackageVisibleField") // Set by JUnit.
+    Path dir;
+
+    private Path plugin;
+    private Path cacheFile;
+
+    @BeforeEach
+    void storeLocation() throws IOException {
+        plugin = dir.resolve("protoc-gen-dart");
+        Files.writeString(plugin, "#!/usr/bin/env sh", UTF_8);
+        cacheFile = dir.resolve("cache/protoc-plugin.properties");
+        ProtocPluginLocator.store(cacheFile, plugin, ENVIRONMENT);
+    }
+
+    @Test
+    @DisplayName("take the location from the cache in the same environment")
+    void hit() {
+        assertThat(ProtocPluginLocator.fromCache(cacheFile, ENVIRONMENT)).hasValue(plugin);
+    }
+
+    @Test
+    @DisplayName("ignore the variables not affecting the lookup")
+    void ignoreOtherVariables() {
+        var environment = ImmutableMap.<String, String>builder()
+                .putAll(ENVIRONMENT)
+                .put("HOME", "/home/other")
+                .buildKeepingLast();
+
+        assertThat(ProtocPluginLocator.fromCache(cacheFile, environment)).hasValue(plugin);
+    }
+
+    @Test
+    @DisplayName("invalidate the location if `PATH` changes")
+    void pathChanged() {
+        assertStale("PATH", "/usr/local/bin:/usr/bin:/home/user/.pub-cache/bin");
+    }
+
+    @Test
+    @DisplayName("invalidate the location if `PUB_CACHE` changes")
+    void pubCacheChanged() {
+        assertStale("PUB_CACHE", "/opt/pub-cache");
+    }
+
+    @Test
+    @DisplayName("invalidate the location if the plugin is modified")
+    void pluginModified() throws IOException {
+        var modified = Files.getLastModifiedTime(plugin).toMillis() + 1_000L;
+        Files.setLastModifiedTime(plugin, FileTime.fromMillis(modified));
+
+        assertThat(ProtocPluginLocator.fromCache(cacheFile, ENVIRONMENT)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("invalidate the location if the plugin is deleted")
+    void pluginDeleted() throws IOException {
+        Files.delete(plugin);
+
+        assertThat(ProtocPluginLocator.fromCache(cacheFile, ENVIRONMENT)).isEmpty();
+    }
+
+    private void assertStale(String variable, String value) {
+        var environment = ImmutableMap.<String, String>builder()
+                .putAll(ENVIRONMENT)
+                .put(variable, value)
+                .buildKeepingLast();
+
+        assertThat(ProtocPluginLocator.fromCache(cacheFile, environment)).isEmpty();
+    }
+}
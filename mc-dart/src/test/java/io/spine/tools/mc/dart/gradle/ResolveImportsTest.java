@@ -0,0 +1,258 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.gradle.testkit.runner.TaskOutcome.FROM_CACHE;
+import static org.gradle.testkit.runner.TaskOutcome.SUCCESS;
+
+@DisplayName("`ResolveImports` task should")
+class ResolveImportsTest {
+
+    private static final String TASK = "resolveImports";
+    private static final String GENERATED_FILE = "company/client/file.pb.dart";
+    private static final String RENAMED_FILE = "company/client/renamed.pb.dart";
+    private static final String HAND_WRITTEN_FILE = "company/client/hand_written.dart";
+
+    private static final ImmutableList<String> SETTINGS = ImmutableList.of(
+            "buildCache {",
+            "    local {",
+            "        directory = file('build-cache')",
+            "    }",
+            "}"
+    );
+
+    private static final ImmutableList<String> BUILD = ImmutableList.of(
+            "plugins {",
+            "    id 'io.spine.mc-dart' apply false",
+            "}",
+            "",
+            "tasks.register('" + TASK + "', io.spine.tools.mc.dart.gradle.ResolveImports) {",
+            "    generatedDir = layout.projectDirectory.dir('generated/main/dart')",
+            "    targetDir = layout.projectDirectory.dir('lib')",
+            "    libDir = layout.projectDirectory.dir('lib')",
+            "    modules = ['server': ['company/server/*']]",
+            "    includes = ['**/*.pb.dart']",
+            "    excludes = []",
+            "    copyOtherFiles = false",
+            "    writeOnlyIfChanged = true",
+            "    sync = true",
+            "    maxParallelism = (findProperty('maxParallelism') ?: '1') as int",
+            "}"
+    );
+
+    private static final ImmutableList<String> GENERATED = ImmutableList.of(
+            "import '../server/file.pb.dart' as $0;"
+    );
+
+    private static final ImmutableList<String> RESOLVED = ImmutableList.of(
+            "import 'package:server/company/server/file.pb.dart' as $0;"
+    );
+
+    @TempDir
+    @SuppressWarnings("PackageVisibleField") // Set by JUnit.
+    Path projectDir;
+
+    @BeforeEach
+    void createProject() throws IOException {
+        write("settings.gradle", SETTINGS);
+        write("build.gradle", BUILD);
+        write("generated/main/dart/" + GENERATED_FILE, GENERATED);
+    }
+
+    @Test
+    @DisplayName("resolve imports in the generated files")
+    void resolve() throws IOException {
+        var result = run();
+
+        assertThat(outcome(result)).isEqualTo(SUCCESS);
+        assertResolved();
+    }
+
+    @Test
+    @DisplayName("write the performance report")
+    void writeReport() throws IOException {
+        run();
+
+        var report = projectDir.resolve("build/reports/mc-dart/resolveImports.json");
+        assertThat(Files.readString(report)).contains("\"sourceSet\": \"main\"");
+        assertThat(Files.readString(report)).containsMatch("\"importsRewritten\": [1-9]");
+    }
+
+    @Test
+    @DisplayName("be loaded from the build cache")
+    void loadFromCache() throws IOException {
+        var first = run("--build-cache");
+        assertThat(outcome(first)).isEqualTo(SUCCESS);
+
+        MoreFiles.deleteRecursively(projectDir.resolve("lib"),
+                                    RecursiveDeleteOption.ALLOW_INSECURE);
+        var second = run("--build-cache");
+
+        assertThat(outcome(second)).isEqualTo(FROM_CACHE);
+        assertResolved();
+    }
+
+    @Test
+    @DisplayName("reuse the configuration cache")
+    void reuseConfigurationCache() throws IOException {
+        var first = run("--configuration-cache");
+        assertThat(first.getOutput()).contains("Configuration cache entry stored");
+
+        Files.delete(projectDir.resolve("lib/" + GENERATED_FILE));
+        var second = run("--configuration-cache");
+
+        assertThat(second.getOutput()).contains("Reusing configuration cache");
+        assertThat(outcome(second)).isEqualTo(SUCCESS);
+        assertResolved();
+    }
+
+    @Test
+    @DisplayName("delete the stale files it has written earlier")
+    void deleteStaleFiles() throws IOException {
+        run();
+        write("lib/" + HAND_WRITTEN_FILE, ImmutableList.of("// Hand-written code."));
+        Files.delete(projectDir.resolve("generated/main/dart/" + GENERATED_FILE));
+        write("generated/main/dart/" + RENAMED_FILE, GENERATED);
+
+        // Drops the execution history, so that the next run is not incremental.
+        MoreFiles.deleteRecursively(projectDir.resolve(".gradle"),
+                                    RecursiveDeleteOption.ALLOW_INSECURE);
+        var result = run();
+
+        assertThat(outcome(result)).isEqualTo(SUCCESS);
+        var lib = projectDir.resolve("lib");
+        assertThat(lib.resolve(GENERATED_FILE).toFile().exists()).isFalse();
+        assertThat(lib.resolve(RENAMED_FILE).toFile().exists()).isTrue();
+        assertThat(lib.resolve(HAND_WRITTEN_FILE).toFile().exists()).isTrue();
+    }
+
+    @Test
+    @DisplayName("keep the modification time of a resolved file which stays the same")
+    void keepModificationTime() throws IOException {
+        run();
+        var resolved = projectDir.resolve("lib/" + GENERATED_FILE);
+        var modified = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(resolved, modified);
+
+        // The generated file changes, but the resolved import stays the same.
+        write("generated/main/dart/" + GENERATED_FILE,
+              ImmutableList.of("import '../server/./file.pb.dart' as $0;"));
+        var result = run();
+
+        assertThat(outcome(result)).isEqualTo(SUCCESS);
+        assertResolved();
+        assertThat(Files.getLastModifiedTime(resolved)).isEqualTo(modified);
+    }
+
+    @Test
+    @DisplayName("write the same files in parallel as serially")
+    void resolveInParallel() throws IOException {
+        for (var i = 0; i < 16; i++) {
+            var imports = ImmutableList.of(
+                    "import 'dart:core' as $core;",
+                    "import '../server/file" + i + ".pb.dart' as $0;",
+                    "import 'file" + (i + 1) + ".pb.dart' as $1;",
+                    "",
+                    "class Message" + i + " {}"
+            );
+            write("generated/main/dart/company/client/file" + i + ".pb.dart", imports);
+        }
+        run("-PmaxParallelism=1");
+        var serial = projectDir.resolve("serial");
+        Files.move(projectDir.resolve("lib"), serial);
+
+        // Drops the execution history, so that the next run is not incremental.
+        MoreFiles.deleteRecursively(projectDir.resolve(".gradle"),
+                                    RecursiveDeleteOption.ALLOW_INSECURE);
+        var result = run("-PmaxParallelism=4");
+
+        assertThat(outcome(result)).isEqualTo(SUCCESS);
+        var parallel = projectDir.resolve("lib");
+        var files = relativePaths(serial);
+        assertThat(relativePaths(parallel)).containsExactlyElementsIn(files);
+        for (var file : files) {
+            assertThat(Files.readAllBytes(parallel.resolve(file)))
+                    .isEqualTo(Files.readAllBytes(serial.resolve(file)));
+        }
+    }
+
+    private static ImmutableList<String> relativePaths(Path dir) throws IOException {
+        try (var files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                        .map(file -> dir.relativize(file).toString())
+                        .collect(toImmutableList());
+        }
+    }
+
+    private void assertResolved() throws IOException {
+        var resolved = projectDir.resolve("lib/" + GENERATED_FILE);
+        assertThat(Files.readAllLines(resolved, UTF_8)).isEqualTo(RESOLVED);
+    }
+
+    private BuildResult run(String... arguments) {
+        var args = ImmutableList.<String>builder()
+                .add(TASK, "--stacktrace")
+                .add(arguments)
+                .build();
+        return GradleRunner.create()
+                .withProjectDir(projectDir.toFile())
+                .withPluginClasspath()
+                .withArguments(args)
+                .build();
+    }
+
+    private static TaskOutcome outcome(BuildResult result) {
+        var task = result.task(':' + TASK);
+        assertThat(task).isNotNull();
+        return task.getOutcome();
+    }
+
+    private void write(String path, Iterable<String> lines) throws IOException {
+        var file = projectDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines, UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.tools.mc.dart.gradle.CopyStrategy.COPY;
+import static io.spine.tools.mc.dart.gradle.CopyStrategy.LINK;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`TargetFiles` should")
+class TargetFilesTest {
+
+    private static final ImmutableList<String> GENERATED = ImmutableList.of(
+            "import '../server/file.pb.dart' as $0;"
+    );
+
+    @TempDir
+    @SuppressWarnings("PackageVisibleField") // Set by JUnit.
+    Path dir;
+
+    private Path source;
+    private Path target;
+
+    @BeforeEach
+    void createSource() throws IOException {
+        source = dir.resolve("generated/file.pb.dart");
+        target = dir.resolve("lib/company/file.pb.dart");
+        Files.createDirectories(source.getParent());
+        Files.write(source, GENERATED, UTF_8);
+    }
+
+    @Test
+    @DisplayName("copy files")
+    void copy() throws IOException {
+        TargetFiles.copy(source, target, true, COPY);
+
+        assertThat(Files.readAllLines(target, UTF_8)).isEqualTo(GENERATED);
+        assertThat(Files.isSameFile(source, target)).isFalse();
+    }
+
+    @Test
+    @DisplayName("link files")
+    void link() throws IOException {
+        TargetFiles.copy(source, target, true, LINK);
+
+        assertThat(Files.readAllLines(target, UTF_8)).isEqualTo(GENERATED);
+        assertThat(Files.isSameFile(source, target)).isTrue();
+    }
+
+    @Test
+    @DisplayName("not write through a link")
+    void breakLink() throws IOException {
+        TargetFiles.copy(source, target, true, LINK);
+        var resolved = "import 'package:server/file.pb.dart' as $0;\n";
+
+        TargetFiles.write(target, resolved.getBytes(UTF_8), true);
+
+        assertThat(Files.readString(target, UTF_8)).isEqualTo(resolved);
+        assertThat(Files.readAllLines(source, UTF_8)).isEqualTo(GENERATED);
+    }
+}
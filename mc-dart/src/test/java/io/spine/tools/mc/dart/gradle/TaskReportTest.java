@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.dart.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.BYTES_READ;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.FILES_SCANNED;
+import static io.spine.tools.mc.dart.gradle.TaskReport.Counter.IMPORTS_REWRITTEN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`TaskReport` should")
+class TaskReportTest {
+
+    @Test
+    @DisplayName("write the counters and the stages as JSON")
+    void write(@TempDir Path dir) throws IOException {
+        var project = ProjectBuilder.builder()
+                .withProjectDir(dir.toFile())
+                .build();
+        var task = project.getTasks().register("resolveImports", DefaultTask.class).get();
+        var report = new TaskReport();
+        report.add(FILES_SCANNED, 3);
+        report.increment(IMPORTS_REWRITTEN);
+        report.time("resolve", () -> {});
+        var file = dir.resolve("report.json");
+
+        report.write(file, task, ResolveImports.class, "main", true);
+
+        var json = Files.readString(file, UTF_8);
+        assertThat(json).contains("\"task\": \":resolveImports\"");
+        assertThat(json).contains("\"type\": \"ResolveImports\"");
+        assertThat(json).contains("\"sourceSet\": \"main\"");
+        assertThat(json).contains("\"incremental\": true");
+        assertThat(json).contains("\"filesScanned\": 3");
+        assertThat(json).contains("\"importsRewritten\": 1");
+        assertThat(json).containsMatch("\"stages\": \\{\\s*\"resolve\": \\d+\\s*}");
+    }
+
+    @Test
+    @DisplayName("add the stored counters of a work item")
+    void addStored(@TempDir Path dir) {
+        var file = dir.resolve("batch-0.properties");
+        var workReport = new TaskReport();
+        workReport.add(BYTES_READ, 1024);
+        workReport.store(file);
+        var report = new TaskReport();
+        report.add(BYTES_READ, 1);
+
+        report.addStored(file);
+
+        assertThat(report.get(BYTES_READ)).isEqualTo(1025);
+    }
+}